@@ -15,37 +15,41 @@
  */
 package com.google.gwtmockito;
 
-import static org.mockito.Mockito.mock;
-
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.GWTBridge;
-import com.google.gwt.i18n.client.Messages;
 import com.google.gwt.i18n.client.constants.NumberConstantsImpl;
 import com.google.gwt.i18n.client.impl.LocaleInfoImpl;
-import com.google.gwt.resources.client.ClientBundle;
-import com.google.gwt.resources.client.CssResource;
-import com.google.gwt.safehtml.client.SafeHtmlTemplates;
-import com.google.gwt.uibinder.client.UiBinder;
 import com.google.gwt.user.client.rpc.RemoteService;
+import com.google.gwtmockito.GwtMockitoStatistics.Resolution;
+import com.google.gwtmockito.GwtMockitoStatistics.TypeStatistics;
+import com.google.gwtmockito.fakes.AutoFakeProvider;
 import com.google.gwtmockito.fakes.FakeClientBundleProvider;
 import com.google.gwtmockito.fakes.FakeLocaleInfoImplProvider;
 import com.google.gwtmockito.fakes.FakeMessagesProvider;
 import com.google.gwtmockito.fakes.FakeNumberConstantsImplProvider;
 import com.google.gwtmockito.fakes.FakeProvider;
 import com.google.gwtmockito.fakes.FakeUiBinderProvider;
+import com.google.gwtmockito.impl.FieldHandle;
 import com.google.gwtmockito.impl.ReturnsCustomMocks;
+import com.google.gwtmockito.impl.SuiteStatistics;
+import com.google.gwtmockito.impl.TestContext;
 
-import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * A library to make Mockito-based testing of GWT applications easier. Most
@@ -77,6 +81,13 @@ import java.util.Set;
  *        name of the method and any arguments passed to it. The exact format is
  *        undefined. See {@link FakeMessagesProvider} for details.
  * </ul>
+ * Providers for other types can be registered for every test by annotating
+ * them with {@link AutoFakeProvider}.
+ * <p>
+ * Each call to GWT.create returns a new fake unless the test class is
+ * annotated with {@link WithSingletonFakes}. Number and date formats follow
+ * English conventions unless the test class is annotated with
+ * {@link WithLocale}.
  * <p>
  * The type returned from GWT.create will generally be the same as the type
  * passed in. The exception is when GWT.create'ing a subclass of
@@ -86,6 +97,13 @@ import java.util.Set;
  * If {@link #initMocks} is called manually, it is important to invoke
  * {@link #tearDown} once the test has been completed. Failure to do so can
  * cause state to leak between tests.
+ * <p>
+ * The mocks and providers set up by {@link #initMocks} are confined to the
+ * thread that called it and to any threads that thread starts afterwards, so
+ * tests running concurrently on different threads don't interfere with each
+ * other. Calls to GWT.create from any other thread, or from a thread started by
+ * a test that has since been torn down, behave as if {@link #initMocks} had
+ * never been called.
  *
  * @see GwtMockitoTestRunner
  * @see GwtMock
@@ -93,20 +111,128 @@ import java.util.Set;
  */
 public class GwtMockito {
 
-  private static final Map<Class<?>, FakeProvider<?>> DEFAULT_FAKE_PROVIDERS =
-      new HashMap<Class<?>, FakeProvider<?>>();
+  /**
+   * The providers built into GwtMockito, and the default providers of every test, which add the
+   * providers annotated with {@link AutoFakeProvider} on top of the built-in ones. Annotated
+   * providers take precedence over built-in providers for the same type. Both are registered by
+   * name so that neither the providers nor the types they provide are loaded until a test creates
+   * one of those types.
+   */
+  private static final ProviderRegistry BUILT_IN_FAKE_PROVIDERS;
+  private static final ProviderRegistry DEFAULT_FAKE_PROVIDERS;
   static {
-    DEFAULT_FAKE_PROVIDERS.put(ClientBundle.class, new FakeClientBundleProvider());
-    DEFAULT_FAKE_PROVIDERS.put(CssResource.class, new FakeMessagesProvider<CssResource>());
-    DEFAULT_FAKE_PROVIDERS.put(LocaleInfoImpl.class, new FakeLocaleInfoImplProvider());
-    DEFAULT_FAKE_PROVIDERS.put(Messages.class, new FakeMessagesProvider<Messages>());
-    DEFAULT_FAKE_PROVIDERS.put(NumberConstantsImpl.class, new FakeNumberConstantsImplProvider());
-    DEFAULT_FAKE_PROVIDERS.put(
-        SafeHtmlTemplates.class, new FakeMessagesProvider<SafeHtmlTemplates>());
-    DEFAULT_FAKE_PROVIDERS.put(UiBinder.class, new FakeUiBinderProvider());
+    Map<String, String> providers = new HashMap<String, String>();
+    providers.put("com.google.gwt.resources.client.ClientBundle",
+        "com.google.gwtmockito.fakes.FakeClientBundleProvider");
+    providers.put("com.google.gwt.resources.client.CssResource",
+        "com.google.gwtmockito.fakes.FakeMessagesProvider");
+    providers.put("com.google.gwt.i18n.client.impl.LocaleInfoImpl",
+        "com.google.gwtmockito.fakes.FakeLocaleInfoImplProvider");
+    providers.put("com.google.gwt.i18n.client.Messages",
+        "com.google.gwtmockito.fakes.FakeMessagesProvider");
+    providers.put("com.google.gwt.i18n.client.constants.NumberConstantsImpl",
+        "com.google.gwtmockito.fakes.FakeNumberConstantsImplProvider");
+    providers.put("com.google.gwt.safehtml.client.SafeHtmlTemplates",
+        "com.google.gwtmockito.fakes.FakeMessagesProvider");
+    providers.put("com.google.gwt.uibinder.client.UiBinder",
+        "com.google.gwtmockito.fakes.FakeUiBinderProvider");
+    BUILT_IN_FAKE_PROVIDERS = ProviderRegistry.lazy(providers);
+    Map<String, String> annotatedProviders = ProviderIndex.read(GwtMockito.class.getClassLoader());
+    DEFAULT_FAKE_PROVIDERS = annotatedProviders.isEmpty()
+        ? BUILT_IN_FAKE_PROVIDERS
+        : ProviderRegistry.lazy(BUILT_IN_FAKE_PROVIDERS, annotatedProviders);
   }
 
-  private static Bridge bridge;
+  /**
+   * Maps each remote service interface to its async interface. Like gwt-rpc, this expects the async
+   * interface to be declared alongside the service with the same name plus "Async". The lookup uses
+   * binary names so that services nested in other classes are supported.
+   */
+  private static final ClassValue<Class<?>> ASYNC_TYPES = new ClassValue<Class<?>>() {
+    @Override
+    protected Class<?> computeValue(Class<?> type) {
+      try {
+        return Class.forName(type.getName() + "Async", false, type.getClassLoader());
+      } catch (ClassNotFoundException e) {
+        throw new IllegalArgumentException(
+            type.getCanonicalName() + " does not have a corresponding async interface", e);
+      }
+    }
+  };
+
+  /**
+   * The {@link GwtMock}-annotated fields declared by each class and its superclasses. Each class
+   * reuses the list computed for its superclass, so shared test base classes are only scanned once.
+   */
+  private static final ClassValue<List<FieldHandle>> GWT_MOCK_FIELDS =
+      new ClassValue<List<FieldHandle>>() {
+        @Override
+        protected List<FieldHandle> computeValue(Class<?> clazz) {
+          if ("java.lang.Object".equals(clazz.getName())) {
+            return Collections.emptyList();
+          }
+          List<FieldHandle> fields = new ArrayList<FieldHandle>();
+          for (Field field : clazz.getDeclaredFields()) {
+            if (field.isAnnotationPresent(GwtMock.class)) {
+              fields.add(new FieldHandle(field));
+            }
+          }
+          fields.addAll(get(clazz.getSuperclass()));
+
+          Set<Class<?>> types = new HashSet<Class<?>>();
+          for (FieldHandle field : fields) {
+            if (!types.add(field.getType())) {
+              throw new IllegalArgumentException("Owner declares multiple @GwtMocks for type "
+                  + field.getType().getSimpleName() + "; only one is allowed. Did you mean to "
+                  + "use a standard @Mock?");
+            }
+          }
+          return Collections.unmodifiableList(fields);
+        }
+      };
+
+  /**
+   * Pools of mocks for {@link GwtMock} fields and for calls to GWT.create, respectively, kept for
+   * each test class annotated with {@link WithRecycledMocks}.
+   */
+  private static final ClassValue<MockPool> GWT_MOCK_POOLS = new ClassValue<MockPool>() {
+    @Override
+    protected MockPool computeValue(Class<?> type) {
+      return new MockPool(false);
+    }
+  };
+  private static final ClassValue<MockPool> CREATED_MOCK_POOLS = new ClassValue<MockPool>() {
+    @Override
+    protected MockPool computeValue(Class<?> type) {
+      return new MockPool(true);
+    }
+  };
+
+  /**
+   * The bridge of the test running on each thread. Threads started by a test inherit the same
+   * holder so that code under test can call GWT.create from background threads. The holder is
+   * cleared when the test tears down, so that threads outliving the test, such as pooled executor
+   * threads, neither see its bindings nor keep its mocks reachable.
+   */
+  private static final InheritableThreadLocal<AtomicReference<Bridge>> BRIDGES =
+      new InheritableThreadLocal<AtomicReference<Bridge>>();
+
+  /**
+   * The bridge installed in GWT while any thread has a bridge of its own, along with the number of
+   * such threads. Guarded by {@link #DISPATCHING_BRIDGE}.
+   */
+  private static final DispatchingBridge DISPATCHING_BRIDGE = new DispatchingBridge();
+  private static int activeBridges;
+
+  static {
+    TestContext.setLocator(new TestContext.Locator() {
+      @Override
+      public TestContext getCurrentContext() {
+        Bridge bridge = currentBridge();
+        return bridge != null ? bridge.context : null;
+      }
+    });
+  }
 
   /**
    * Causes all calls to GWT.create to be intercepted to return a mock or fake
@@ -120,17 +246,25 @@ public class GwtMockito {
    *              always "this" in unit tests
    */
   public static void initMocks(Object owner) {
-    // Create a new bridge and register built-in type providers
-    bridge = new Bridge();
-    for (Entry<Class<?>, FakeProvider<?>> entry : DEFAULT_FAKE_PROVIDERS.entrySet()) {
-      useProviderForType(entry.getKey(), entry.getValue());
+    // Give back any recycled mocks used by the previous test on this thread, then create a new
+    // bridge, which starts out using the shared built-in type providers. A bridge inherited from
+    // the thread that started this one is left alone, since that thread is still using it.
+    Bridge previousBridge = currentBridge();
+    boolean ownsPreviousBridge = previousBridge != null && previousBridge.isOwnedByCurrentThread();
+    if (ownsPreviousBridge) {
+      BRIDGES.get().set(null);
+      previousBridge.close();
+    }
+    Bridge bridge = new Bridge(owner.getClass());
+    BRIDGES.set(new AtomicReference<Bridge>(bridge));
+    if (!ownsPreviousBridge) {
+      activateBridge();
     }
 
-    // Install the bridge and populate mock fields
+    // Populate mock fields
     boolean success = false;
     try {
-      setGwtBridge(bridge);
-      registerGwtMocks(owner);
+      registerGwtMocks(bridge, owner);
       MockitoAnnotations.initMocks(owner);
       success = true;
     } finally {
@@ -144,10 +278,27 @@ public class GwtMockito {
    * Resets GWT.create to its default behavior. This method should be called
    * after any test that called initMocks completes, usually in your test's
    * tearDown method. Failure to do so can introduce unexpected ordering
-   * dependencies in tests.
+   * dependencies in tests. Affects the current thread and any threads that it started since
+   * calling initMocks.
    */
   public static void tearDown() {
-    setGwtBridge(null);
+    AtomicReference<Bridge> holder = BRIDGES.get();
+    if (holder == null) {
+      return;
+    }
+    BRIDGES.remove();
+    Bridge bridge = holder.get();
+    if (bridge != null && bridge.isOwnedByCurrentThread()) {
+      holder.set(null);
+      bridge.close();
+      deactivateBridge();
+    }
+  }
+
+  /** Returns the bridge of the test running on the current thread, or null if there is none. */
+  private static Bridge currentBridge() {
+    AtomicReference<Bridge> holder = BRIDGES.get();
+    return holder != null ? holder.get() : null;
   }
 
   /**
@@ -160,6 +311,7 @@ public class GwtMockito {
    * instead.
    */
   public static void useProviderForType(Class<?> type, FakeProvider<?> provider) {
+    Bridge bridge = currentBridge();
     if (bridge == null) {
       throw new IllegalStateException("Must call initMocks() before calling useProviderForType()");
     }
@@ -167,7 +319,7 @@ public class GwtMockito {
       throw new IllegalArgumentException(
           "Can't use a provider for a type that already has a @GwtMock declared");
     }
-    bridge.registeredProviders.put(type, provider);
+    bridge.registerProvider(type, provider);
   }
 
   /**
@@ -183,9 +335,10 @@ public class GwtMockito {
   public static <T> T getFake(Class<T> type) {
     // If initMocks hasn't been called, read from the default fake provider map. This allows static
     // fields to be initialized with fakes in tests that don't use the GwtMockito test runner.
-    T fake = getFakeFromProviderMap(
-        type,
-        bridge != null ? bridge.registeredProviders : DEFAULT_FAKE_PROVIDERS);
+    Bridge bridge = currentBridge();
+    T fake = bridge != null
+        ? bridge.getFakeFromProviders(type)
+        : getFakeFromProvider(type, DEFAULT_FAKE_PROVIDERS.getProvider(type));
     if (fake == null) {
       throw new IllegalArgumentException("No fake provider has been registered "
           + "for " + type.getSimpleName() + ". Call useProviderForType to "
@@ -194,29 +347,70 @@ public class GwtMockito {
     return fake;
   }
 
-  private static void registerGwtMocks(Object owner) {
-    Class<? extends Object> clazz = owner.getClass();
-
-    while (!"java.lang.Object".equals(clazz.getName())) {
-      for (Field field : clazz.getDeclaredFields()) {
-        if (field.isAnnotationPresent(GwtMock.class)) {
-          Object mock = Mockito.mock(field.getType());
-          if (bridge.registeredMocks.containsKey(field.getType())) {
-            throw new IllegalArgumentException("Owner declares multiple @GwtMocks for type "
-                + field.getType().getSimpleName() + "; only one is allowed. Did you mean to "
-                + "use a standard @Mock?");
-          }
-          bridge.registeredMocks.put(field.getType(), mock);
-          field.setAccessible(true);
-          try {
-            field.set(owner, mock);
-          } catch (IllegalAccessException e) {
-            throw new IllegalStateException("Failed to make field accessible: " + field);
-          }
-        }
+  /**
+   * Returns statistics describing how GWT.create calls have been handled since the last call to
+   * {@link #initMocks}. The returned object is a snapshot and is not updated by later calls.
+   *
+   * @throws IllegalStateException if {@link #initMocks} has not been called, or if statistics
+   *     aren't recorded for the test, as configured by {@link WithStatistics} and
+   *     {@link GwtMockitoStatistics#ENABLED_PROPERTY}
+   */
+  public static GwtMockitoStatistics getStatistics() {
+    Bridge bridge = currentBridge();
+    if (bridge == null) {
+      throw new IllegalStateException("Must call initMocks() before calling getStatistics()");
+    }
+    if (!bridge.recordsStatistics) {
+      throw new IllegalStateException("Annotate the test class with @WithStatistics or set the "
+          + GwtMockitoStatistics.ENABLED_PROPERTY
+          + " system property before calling getStatistics()");
+    }
+    List<TypeStatistics> typeStatistics = new ArrayList<TypeStatistics>();
+    for (Map.Entry<Class<?>, CreateCounter> entry : bridge.createCounters.entrySet()) {
+      typeStatistics.add(entry.getValue().snapshot(entry.getKey()));
+    }
+    return new GwtMockitoStatistics(
+        bridge.providerCacheHits.get(), bridge.providerCacheMisses.get(), typeStatistics);
+  }
+
+  /**
+   * Returns the messages passed to GWT.log since the last call to {@link #initMocks}, if the test
+   * class is annotated with {@link WithBufferedLog}. Returns null if it isn't, since messages are
+   * written to standard error as they are logged in that case. Also returns null if
+   * {@link #initMocks} has not been called or {@link #tearDown} has already been called, so that it
+   * is always safe to call while reporting a failure.
+   */
+  public static String getBufferedLog() {
+    Bridge bridge = currentBridge();
+    if (bridge == null || bridge.logBuffer == null) {
+      return null;
+    }
+    return bridge.logBuffer.getContents();
+  }
+
+  /** Records that another thread has a bridge, installing the dispatching bridge if necessary. */
+  private static void activateBridge() {
+    synchronized (DISPATCHING_BRIDGE) {
+      if (activeBridges++ == 0) {
+        setGwtBridge(DISPATCHING_BRIDGE);
+      }
+    }
+  }
+
+  /** Records that a thread no longer has a bridge, removing the dispatching bridge if unused. */
+  private static void deactivateBridge() {
+    synchronized (DISPATCHING_BRIDGE) {
+      if (--activeBridges == 0) {
+        setGwtBridge(null);
       }
+    }
+  }
 
-      clazz = clazz.getSuperclass();
+  private static void registerGwtMocks(Bridge bridge, Object owner) {
+    for (FieldHandle field : GWT_MOCK_FIELDS.get(owner.getClass())) {
+      Object mock = bridge.newMock(field.getType(), false);
+      bridge.registeredMocks.put(field.getType(), mock);
+      field.set(owner, mock);
     }
   }
 
@@ -236,65 +430,236 @@ public class GwtMockito {
     }
   }
 
-  private static <T> T getFakeFromProviderMap(Class<T> type, Map<Class<?>, FakeProvider<?>> map) {
-      // See if we have any providers for this type or its supertypes.
-      Map<Class<?>, FakeProvider<?>> legalProviders = new HashMap<Class<?>, FakeProvider<?>>();
-      for (Entry<Class<?>, FakeProvider<?>> entry : map.entrySet()) {
-        if (entry.getKey().isAssignableFrom(type)) {
-          legalProviders.put(entry.getKey(), entry.getValue());
-        }
+  /** Returns a fake for the given type from the given provider, or null if it is null. */
+  private static <T> T getFakeFromProvider(Class<T> type, FakeProvider<?> provider) {
+    if (provider == null) {
+      return null;
+    }
+    // We know this is safe since providers are only resolved for types assignable to their own
+    @SuppressWarnings({"rawtypes", "cast", "unchecked"})
+    T fake = (T) provider.getFake((Class) type);
+    return fake;
+  }
+
+  /** Counts the calls to GWT.create for a single type and the time spent in them. */
+  private static class CreateCounter {
+    private final int[] callCounts = new int[Resolution.values().length];
+    private long totalNanos;
+
+    synchronized void record(Resolution resolution, long nanos) {
+      callCounts[resolution.ordinal()]++;
+      totalNanos += nanos;
+    }
+
+    synchronized TypeStatistics snapshot(Class<?> type) {
+      return new TypeStatistics(type, callCounts.clone(), totalNanos);
+    }
+
+    synchronized void addToSuiteStatistics(Class<?> type) {
+      SuiteStatistics.addType(type.getName(), callCounts, totalNanos);
+    }
+  }
+
+  /** A mock that was taken from a pool and must be given back once the test completes. */
+  private static class PooledMock {
+    private final MockPool pool;
+    private final Class<?> type;
+    private final Object mock;
+
+    PooledMock(MockPool pool, Class<?> type, Object mock) {
+      this.pool = pool;
+      this.type = type;
+      this.mock = mock;
+    }
+  }
+
+  /**
+   * The bridge installed in GWT while any test is running, which forwards each call to the bridge
+   * of the calling thread. If the calling thread has no bridge, GWT.create fails in the same way as
+   * it would if no bridge were installed.
+   */
+  private static class DispatchingBridge extends GWTBridge {
+    @Override
+    public <T> T create(Class<?> classLiteral) {
+      Bridge bridge = currentBridge();
+      if (bridge == null) {
+        throw new UnsupportedOperationException(
+            "ERROR: GWT.create() is only usable in client code!  It cannot be called, "
+                + "for example, from server code.  If you are running a unit test, "
+                + "check that your test case extends GWTTestCase and that GWT.create() "
+                + "is not called from within an initializer or constructor.");
       }
+      return bridge.create(classLiteral);
+    }
 
-      // Filter the set of legal providers to the most specific type.
-      Map<Class<?>, FakeProvider<?>> filteredProviders = new HashMap<Class<?>, FakeProvider<?>>();
-      for (Entry<Class<?>, FakeProvider<?>> candidate : legalProviders.entrySet()) {
-        boolean isSpecific = true;
-        for (Entry<Class<?>, FakeProvider<?>> other : legalProviders.entrySet()) {
-          if (candidate != other && candidate.getKey().isAssignableFrom(other.getKey())) {
-            isSpecific = false;
-            break;
-          }
-        }
-        if (isSpecific) {
-          filteredProviders.put(candidate.getKey(), candidate.getValue());
-        }
+    @Override
+    public String getVersion() {
+      Bridge bridge = currentBridge();
+      return bridge != null ? bridge.getVersion() : null;
+    }
+
+    @Override
+    public boolean isClient() {
+      return false;
+    }
+
+    @Override
+    public void log(String message, Throwable e) {
+      Bridge bridge = currentBridge();
+      if (bridge != null) {
+        bridge.log(message, e);
       }
+    }
+  }
+
+  private static class Bridge extends GWTBridge {
+    private final Thread owner = Thread.currentThread();
+    private final Map<Class<?>, Object> registeredMocks =
+        new ConcurrentHashMap<Class<?>, Object>();
+
+    /** Pools to take mocks from, or null if the test class doesn't recycle mocks. */
+    private final MockPool gwtMockPool;
+    private final MockPool createdMockPool;
+    private final List<PooledMock> pooledMocks = new ArrayList<PooledMock>();
 
-      // If exactly one provider remains, use it.
-      if (filteredProviders.size() == 1) {
-        // We know this is safe since we checked that the types are assignable
-        @SuppressWarnings({"rawtypes", "cast"})
-        Class rawType = (Class) type;
-        return (T) filteredProviders.values().iterator().next().getFake(rawType);
-      } else if (filteredProviders.isEmpty()) {
-        return null;
+    /**
+     * The providers available to this bridge. Initially this is the shared layer of default
+     * providers; a layer of this bridge's own is added the first time a provider is registered.
+     */
+    private volatile ProviderRegistry providers = DEFAULT_FAKE_PROVIDERS;
+
+    /**
+     * Whether calls to GWT.create are counted and timed, as configured by {@link WithStatistics} or
+     * else by {@link GwtMockitoStatistics#ENABLED_PROPERTY}.
+     */
+    private final boolean recordsStatistics;
+    private final AtomicInteger providerCacheHits = new AtomicInteger();
+    private final AtomicInteger providerCacheMisses = new AtomicInteger();
+    private final Map<Class<?>, CreateCounter> createCounters =
+        new ConcurrentHashMap<Class<?>, CreateCounter>();
+
+    /**
+     * Types whose fakes are created only once per test, as configured by
+     * {@link WithSingletonFakes}, and the fakes that have been created for them so far.
+     */
+    private final Class<?>[] singletonTypes;
+    private final Map<Class<?>, Object> singletonFakes = new ConcurrentHashMap<Class<?>, Object>();
+
+    /** Buffer for GWT.log messages, or null if they should be written to standard error. */
+    private final LogBuffer logBuffer;
+
+    /** State kept by the fakes for this test. */
+    private final TestContext context = new TestContext() {
+      @Override
+      public boolean hasCustomBinding(Class<?> type, Class<?> baseType) {
+        return registeredMocks.containsKey(type)
+            || providers.getProvider(type) != BUILT_IN_FAKE_PROVIDERS.getProvider(baseType);
+      }
+    };
+
+    Bridge(Class<?> ownerClass) {
+      if (ownerClass.isAnnotationPresent(WithRecycledMocks.class)) {
+        gwtMockPool = GWT_MOCK_POOLS.get(ownerClass);
+        createdMockPool = CREATED_MOCK_POOLS.get(ownerClass);
       } else {
-        throw new IllegalArgumentException("Can't decide which provider to use for " +
-            type.getSimpleName() +
-            ", it could be provided as any of the following: " +
-            mapToSimpleNames(filteredProviders.keySet()) +
-            ". Add a provider for " +
-            type.getSimpleName() +
-            " to resolve this ambiguity.");
+        gwtMockPool = null;
+        createdMockPool = null;
       }
-  }
+      WithSingletonFakes singletonFakesAnnotation =
+          ownerClass.getAnnotation(WithSingletonFakes.class);
+      singletonTypes = singletonFakesAnnotation != null
+          ? singletonFakesAnnotation.value()
+          : new Class<?>[0];
+      WithStatistics statisticsAnnotation = ownerClass.getAnnotation(WithStatistics.class);
+      recordsStatistics = statisticsAnnotation != null
+          ? statisticsAnnotation.value()
+          : Boolean.getBoolean(GwtMockitoStatistics.ENABLED_PROPERTY);
+      WithBufferedLog bufferedLogAnnotation = ownerClass.getAnnotation(WithBufferedLog.class);
+      logBuffer = bufferedLogAnnotation != null ? new LogBuffer(bufferedLogAnnotation) : null;
+      WithLocale localeAnnotation = ownerClass.getAnnotation(WithLocale.class);
+      if (localeAnnotation != null) {
+        registerProvider(LocaleInfoImpl.class,
+            new FakeLocaleInfoImplProvider(localeAnnotation.value()));
+        registerProvider(NumberConstantsImpl.class,
+            new FakeNumberConstantsImplProvider(localeAnnotation.value()));
+      }
+    }
 
-    private static Set<String> mapToSimpleNames(Set<Class<?>> classes) {
-      Set<String> simpleNames = new HashSet<String>();
-      for (Class<?> clazz : classes) {
-        simpleNames.add(clazz.getSimpleName());
+    /** Returns whether this bridge was created by the current thread rather than inherited. */
+    boolean isOwnedByCurrentThread() {
+      return owner == Thread.currentThread();
+    }
+
+    /**
+     * Returns a new mock of the given type, taking it from the appropriate pool if the test class
+     * recycles mocks.
+     *
+     * @param returnCustomMocks whether the mock should answer with {@link ReturnsCustomMocks}
+     */
+    Object newMock(Class<?> type, boolean returnCustomMocks) {
+      MockPool pool = returnCustomMocks ? createdMockPool : gwtMockPool;
+      if (pool == null) {
+        return MockPool.createMock(type, returnCustomMocks);
+      }
+      Object mock = pool.take(type);
+      synchronized (this) {
+        pooledMocks.add(new PooledMock(pool, type, mock));
       }
-      return simpleNames;
+      return mock;
     }
 
-  private static class Bridge extends GWTBridge {
-    private final Map<Class<?>, FakeProvider<?>> registeredProviders =
-        new HashMap<Class<?>, FakeProvider<?>>();
-    private final Map<Class<?>, Object> registeredMocks = new HashMap<Class<?>, Object>();
+    /**
+     * Called once the test using this bridge is over to give back its recycled mocks and add its
+     * statistics to the totals for the whole run.
+     */
+    void close() {
+      releaseMocks();
+      if (recordsStatistics) {
+        SuiteStatistics.addTest(providerCacheHits.get(), providerCacheMisses.get());
+        for (Map.Entry<Class<?>, CreateCounter> entry : createCounters.entrySet()) {
+          entry.getValue().addToSuiteStatistics(entry.getKey());
+        }
+      }
+    }
+
+    /** Gives back all mocks taken from pools by this bridge so that later tests can reuse them. */
+    private synchronized void releaseMocks() {
+      for (PooledMock pooledMock : pooledMocks) {
+        pooledMock.pool.giveBack(pooledMock.type, pooledMock.mock);
+      }
+      pooledMocks.clear();
+    }
+
+    synchronized void registerProvider(Class<?> type, FakeProvider<?> provider) {
+      if (!providers.isMutable()) {
+        providers = ProviderRegistry.overlay(providers);
+      }
+      providers.register(type, provider);
+      // Fakes already created for this type or its subtypes came from the provider being replaced
+      for (Iterator<Class<?>> it = singletonFakes.keySet().iterator(); it.hasNext(); ) {
+        if (type.isAssignableFrom(it.next())) {
+          it.remove();
+        }
+      }
+    }
+
+    /** Returns a fake from the registered provider for the given type, or null if there is none. */
+    <T> T getFakeFromProviders(Class<T> type) {
+      ProviderRegistry providers = this.providers;
+      if (recordsStatistics) {
+        if (providers.isResolved(type)) {
+          providerCacheHits.incrementAndGet();
+        } else {
+          providerCacheMisses.incrementAndGet();
+        }
+      }
+      return getFakeFromProvider(type, providers.getProvider(type));
+    }
 
     @Override
     @SuppressWarnings("unchecked") // safe since we check whether the type is assignable
     public <T> T create(Class<?> createdType) {
+      long start = recordsStatistics ? System.nanoTime() : 0;
       // If we're creating a RemoteService, assume that the result of GWT.create is being assigned
       // to the async version of that service. Otherwise, assume it's being assigned to the same
       // type we're creating.
@@ -303,18 +668,64 @@ public class GwtMockito {
           : createdType;
 
       // First check if we have a GwtMock for this exact being assigned to and use it if so.
-      if (registeredMocks.containsKey(assignedType)) {
-        return (T) registeredMocks.get(assignedType);
+      Object mock = registeredMocks.get(assignedType);
+      if (mock != null) {
+        return (T) recordCreate(createdType, Resolution.GWT_MOCK, start, mock);
       }
 
-      // Next check if we have a fake provider that can provide a fake for the type being created.
-      T fake = (T) getFakeFromProviderMap(createdType, registeredProviders);
+      // Next check if we have a fake provider that can provide a fake for the type being created,
+      // reusing the fake created earlier in this test if the type is a singleton.
+      boolean isSingleton = isSingletonType(createdType);
+      if (isSingleton) {
+        Object singletonFake = singletonFakes.get(createdType);
+        if (singletonFake != null) {
+          return (T) recordCreate(createdType, Resolution.FAKE_PROVIDER, start, singletonFake);
+        }
+      }
+      Object fake = getFakeFromProviders(createdType);
       if (fake != null) {
-        return fake;
+        if (isSingleton) {
+          // Don't hold a lock while creating the fake since providers can call GWT.create
+          Object existingFake = singletonFakes.putIfAbsent(createdType, fake);
+          fake = existingFake != null ? existingFake : fake;
+        }
+        return (T) recordCreate(createdType, Resolution.FAKE_PROVIDER, start, fake);
       }
 
       // If nothing has been registered, just return a new mock for the type being assigned.
-      return (T) mock(assignedType, new ReturnsCustomMocks());
+      return (T) recordCreate(
+          createdType, Resolution.DEFAULT_MOCK, start, newMock(assignedType, true));
+    }
+
+    /**
+     * Records a call to GWT.create that started at the given time, if statistics are enabled, and
+     * returns its result.
+     */
+    private Object recordCreate(
+        Class<?> createdType, Resolution resolution, long start, Object result) {
+      if (!recordsStatistics) {
+        return result;
+      }
+      long nanos = System.nanoTime() - start;
+      CreateCounter counter = createCounters.get(createdType);
+      if (counter == null) {
+        CreateCounter newCounter = new CreateCounter();
+        counter = createCounters.putIfAbsent(createdType, newCounter);
+        if (counter == null) {
+          counter = newCounter;
+        }
+      }
+      counter.record(resolution, nanos);
+      return result;
+    }
+
+    private boolean isSingletonType(Class<?> type) {
+      for (Class<?> singletonType : singletonTypes) {
+        if (singletonType.isAssignableFrom(type)) {
+          return true;
+        }
+      }
+      return false;
     }
 
     @Override
@@ -329,6 +740,10 @@ public class GwtMockito {
 
     @Override
     public void log(String message, Throwable e) {
+      if (logBuffer != null) {
+        logBuffer.log(message, e);
+        return;
+      }
       System.err.println(message + "\n");
       if (e != null) {
         e.printStackTrace();
@@ -337,14 +752,7 @@ public class GwtMockito {
 
     /** Returns the corresponding async service type for the given remote service type. */
     private Class<?> getAsyncType(Class<? extends RemoteService> type) {
-      Class<?> asyncType;
-      try {
-        asyncType = Class.forName(type.getCanonicalName() + "Async");
-      } catch (ClassNotFoundException e) {
-        throw new IllegalArgumentException(
-            type.getCanonicalName() + " does not have a corresponding async interface", e);
-      }
-      return asyncType;
+      return ASYNC_TYPES.get(type);
     }
 
   }
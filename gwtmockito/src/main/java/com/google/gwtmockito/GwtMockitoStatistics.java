@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A snapshot of statistics describing how GwtMockito has handled calls to GWT.create during the
+ * current test. Instances are obtained from {@link GwtMockito#getStatistics} in tests that record
+ * statistics, which are those annotated with {@link WithStatistics} or, if the system property
+ * {@value #ENABLED_PROPERTY} is "true", every test not annotated with
+ * {@code @WithStatistics(false)}. The statistics of every recorded test are also totalled for the
+ * whole run and reported by {@link GwtMockitoStatisticsListener}.
+ *
+ * @see GwtMockito
+ */
+public class GwtMockitoStatistics {
+
+  /**
+   * The system property that enables statistics for every test not annotated with
+   * {@link WithStatistics}, when set to "true".
+   */
+  public static final String ENABLED_PROPERTY = "gwtmockito.statistics";
+
+  /** The ways in which a call to GWT.create can be resolved. */
+  public enum Resolution {
+    /** The call returned the mock for a {@link GwtMock}-annotated field. */
+    GWT_MOCK,
+    /** The call returned a fake from a fake provider. */
+    FAKE_PROVIDER,
+    /** The call returned a new mock since there was no other binding for the type. */
+    DEFAULT_MOCK,
+  }
+
+  /** Statistics describing the calls to GWT.create for a single type. */
+  public static final class TypeStatistics {
+    private final Class<?> type;
+    private final int[] callCounts;
+    private final long totalNanos;
+
+    TypeStatistics(Class<?> type, int[] callCounts, long totalNanos) {
+      this.type = type;
+      this.callCounts = callCounts;
+      this.totalNanos = totalNanos;
+    }
+
+    /** Returns the type passed to GWT.create. */
+    public Class<?> getType() {
+      return type;
+    }
+
+    /** Returns the total number of calls to GWT.create for the type. */
+    public int getCallCount() {
+      int callCount = 0;
+      for (int count : callCounts) {
+        callCount += count;
+      }
+      return callCount;
+    }
+
+    /** Returns the number of calls to GWT.create for the type that were resolved as given. */
+    public int getCallCount(Resolution resolution) {
+      return callCounts[resolution.ordinal()];
+    }
+
+    /**
+     * Returns the total time spent in GWT.create for the type, in nanoseconds. This includes the
+     * time spent in any nested calls made while creating it, such as those made by fake UiBinders.
+     */
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder result = new StringBuilder(type.getName())
+          .append(": ")
+          .append(getCallCount())
+          .append(" calls (");
+      for (Resolution resolution : Resolution.values()) {
+        if (resolution.ordinal() > 0) {
+          result.append(", ");
+        }
+        result.append(resolution).append('=').append(getCallCount(resolution));
+      }
+      return result.append(String.format(") in %.3fms", totalNanos / 1e6)).toString();
+    }
+  }
+
+  private final int providerCacheHits;
+  private final int providerCacheMisses;
+  private final List<TypeStatistics> typeStatistics;
+
+  GwtMockitoStatistics(int providerCacheHits, int providerCacheMisses,
+      Collection<TypeStatistics> typeStatistics) {
+    this.providerCacheHits = providerCacheHits;
+    this.providerCacheMisses = providerCacheMisses;
+
+    List<TypeStatistics> sortedStatistics = new ArrayList<TypeStatistics>(typeStatistics);
+    Collections.sort(sortedStatistics, new Comparator<TypeStatistics>() {
+      @Override
+      public int compare(TypeStatistics a, TypeStatistics b) {
+        return Integer.compare(b.getCallCount(), a.getCallCount());
+      }
+    });
+    this.typeStatistics = Collections.unmodifiableList(sortedStatistics);
+  }
+
+  /**
+   * Returns the number of fake provider lookups that were answered from the cache of previously
+   * resolved providers.
+   */
+  public int getProviderCacheHits() {
+    return providerCacheHits;
+  }
+
+  /**
+   * Returns the number of fake provider lookups that had to search the registered providers, either
+   * because the type hadn't been requested before or because a provider was registered since.
+   */
+  public int getProviderCacheMisses() {
+    return providerCacheMisses;
+  }
+
+  /** Returns the fraction of provider lookups that were cache hits, or 0 if there were none. */
+  public double getProviderCacheHitRate() {
+    int lookups = providerCacheHits + providerCacheMisses;
+    return lookups == 0 ? 0 : (double) providerCacheHits / lookups;
+  }
+
+  /**
+   * Returns statistics for each type passed to GWT.create, ordered from the most frequently created
+   * type to the least.
+   */
+  public List<TypeStatistics> getTypeStatistics() {
+    return typeStatistics;
+  }
+
+  /**
+   * Returns statistics for calls to GWT.create for the given type. If the type was never created,
+   * the returned statistics have no calls.
+   */
+  public TypeStatistics getTypeStatistics(Class<?> type) {
+    for (TypeStatistics statistics : typeStatistics) {
+      if (statistics.getType() == type) {
+        return statistics;
+      }
+    }
+    return new TypeStatistics(type, new int[Resolution.values().length], 0);
+  }
+
+  /** Returns the total number of calls to GWT.create. */
+  public int getCreateCallCount() {
+    int callCount = 0;
+    for (TypeStatistics statistics : typeStatistics) {
+      callCount += statistics.getCallCount();
+    }
+    return callCount;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder(String.format(
+        "Provider cache: %d hits, %d misses (%.1f%% hit rate)",
+        providerCacheHits, providerCacheMisses, getProviderCacheHitRate() * 100));
+    result.append("\nGWT.create: ").append(getCreateCallCount()).append(" calls");
+    for (TypeStatistics statistics : typeStatistics) {
+      result.append("\n  ").append(statistics);
+    }
+    return result.toString();
+  }
+}
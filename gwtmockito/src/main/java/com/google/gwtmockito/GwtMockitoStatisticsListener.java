@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import com.google.gwtmockito.GwtMockitoStatistics.Resolution;
+import com.google.gwtmockito.impl.SuiteStatistics;
+
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.notification.RunListener;
+
+import java.io.PrintStream;
+
+/**
+ * A JUnit listener that records statistics about calls to GWT.create in every test of a run and
+ * reports the types that were created most often once the run finishes. This makes it possible to
+ * find code that calls GWT.create far more often than expected, such as a presenter creating a
+ * widget in a loop, without annotating every test class with {@link WithStatistics}. With Maven,
+ * the listener can be registered in the configuration of the Surefire plugin:
+ *
+ * <pre>
+ * &lt;properties&gt;
+ *   &lt;property&gt;
+ *     &lt;name&gt;listener&lt;/name&gt;
+ *     &lt;value&gt;com.google.gwtmockito.GwtMockitoStatisticsListener&lt;/value&gt;
+ *   &lt;/property&gt;
+ * &lt;/properties&gt;
+ * </pre>
+ *
+ * The listener enables recording by setting {@value GwtMockitoStatistics#ENABLED_PROPERTY}, so
+ * test classes annotated with {@code @WithStatistics(false)} are left out of the report.
+ */
+public class GwtMockitoStatisticsListener extends RunListener {
+
+  /** The number of types listed in the report. */
+  private static final int REPORTED_TYPES = 25;
+
+  private final PrintStream out;
+
+  /** Creates a listener that writes its report to standard error. */
+  public GwtMockitoStatisticsListener() {
+    this(System.err);
+  }
+
+  GwtMockitoStatisticsListener(PrintStream out) {
+    this.out = out;
+  }
+
+  /**
+   * Returns a report of the statistics recorded so far by every test in this JVM, totalled for
+   * each created type and listing the types that were created most often first.
+   */
+  public static String getReport() {
+    Resolution[] resolutions = Resolution.values();
+    String[] resolutionNames = new String[resolutions.length];
+    for (Resolution resolution : resolutions) {
+      resolutionNames[resolution.ordinal()] = resolution.name();
+    }
+    return SuiteStatistics.getReport(REPORTED_TYPES, resolutionNames);
+  }
+
+  @Override
+  public void testRunStarted(Description description) {
+    System.setProperty(GwtMockitoStatistics.ENABLED_PROPERTY, "true");
+  }
+
+  @Override
+  public void testRunFinished(Result result) {
+    out.println(getReport());
+  }
+}
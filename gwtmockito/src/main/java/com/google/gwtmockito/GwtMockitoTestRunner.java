@@ -59,7 +59,9 @@ import com.google.gwt.user.client.ui.ValueListBox;
 import com.google.gwt.user.client.ui.VerticalPanel;
 import com.google.gwt.user.client.ui.Widget;
 import com.google.gwtmockito.impl.StubGenerator;
+import com.google.gwtmockito.impl.SuiteStatistics;
 
+import org.junit.internal.AssumptionViolatedException;
 import org.junit.runner.Description;
 import org.junit.runner.Result;
 import org.junit.runner.notification.Failure;
@@ -235,6 +237,31 @@ public class GwtMockitoTestRunner extends BlockJUnit4ClassRunner {
     return classes;
   }
 
+  /**
+   * Returns a collection of explicit return behaviors for particular methods, which will be
+   * compiled into the bodies of those methods when their classes are loaded. By default, this
+   * includes any {@link StubReturns} annotations on the test class.
+   * <p>
+   * This collection can be customized by defining a new test runner extending
+   * {@link GwtMockitoTestRunner} and overriding this method. This allows behaviors shared by many
+   * tests to be declared once on a configuration class, for example:
+   *
+   * <pre>
+   * &#064;Override
+   * protected Collection&lt;StubReturns&gt; getStubReturns() {
+   *   Collection&lt;StubReturns&gt; stubReturns = super.getStubReturns();
+   *   stubReturns.addAll(Arrays.asList(MyConfig.class.getAnnotationsByType(StubReturns.class)));
+   *   return stubReturns;
+   * }
+   * </pre>
+   *
+   * @return a collection of return behaviors to compile into the methods they describe
+   */
+  protected Collection<StubReturns> getStubReturns() {
+    return new LinkedList<StubReturns>(
+        Arrays.asList(unitTestClass.getAnnotationsByType(StubReturns.class)));
+  }
+
   /**
    * Returns a list of package names that should always be loaded via the standard system
    * classloader instead of through GwtMockito's custom classloader. Any subpackages of these
@@ -401,6 +428,55 @@ public class GwtMockitoTestRunner extends BlockJUnit4ClassRunner {
     return super.withBefores(method, target, statement);
   }
 
+  /**
+   * Overridden to invoke GwtMockito.tearDown after each test completes, so that the GWT.create
+   * bindings set up for the test don't outlive it on the thread that ran it. If the test failed and
+   * its log was buffered via {@link WithBufferedLog}, the log is attached to the failure.
+   */
+  @Override
+  @SuppressWarnings("deprecation") // Currently the only way to support afters
+  protected Statement withAfters(FrameworkMethod method, Object target, Statement statement) {
+    final Statement afters = super.withAfters(method, target, statement);
+    return new Statement() {
+      @Override
+      public void evaluate() throws Throwable {
+        try {
+          afters.evaluate();
+        } catch (AssumptionViolatedException e) {
+          throw e;
+        } catch (Throwable e) {
+          attachBufferedLog(e);
+          throw e;
+        } finally {
+          customLoadedGwtMockito.getMethod("tearDown").invoke(null);
+        }
+      }
+    };
+  }
+
+  /**
+   * Attaches the buffered GWT.log output of the current test to the given failure. Errors raised
+   * while reading the log are dropped so that they never hide the failure itself.
+   */
+  private void attachBufferedLog(Throwable failure) {
+    String log;
+    try {
+      log = (String) customLoadedGwtMockito.getMethod("getBufferedLog").invoke(null);
+    } catch (Exception e) {
+      return;
+    }
+    if (log != null && !log.isEmpty()) {
+      failure.addSuppressed(new BufferedLog(log));
+    }
+  }
+
+  /** Carries the buffered GWT.log output of a failed test, reported alongside the failure. */
+  private static final class BufferedLog extends RuntimeException {
+    BufferedLog(String log) {
+      super("GWT.log output:\n" + log, null, false, false);
+    }
+  }
+
   /** Custom classloader that performs additional modifications to loaded classes. */
   private final class GwtMockitoClassLoader extends Loader implements Translator {
 
@@ -418,6 +494,11 @@ public class GwtMockitoTestRunner extends BlockJUnit4ClassRunner {
 
     @Override
     protected Class<?> findClass(String name) throws ClassNotFoundException {
+      // Statistics for the whole run are shared by every test class, so they must be loaded once.
+      if (name.equals(SuiteStatistics.class.getName())) {
+        return null;
+      }
+
       // If the class is in a blacklisted package, load it with the parent or default classloader.
       for (String blacklistedPackage : getPackagesToLoadViaStandardClassloader()) {
         if (name.startsWith(blacklistedPackage)) {
@@ -441,29 +522,17 @@ public class GwtMockitoTestRunner extends BlockJUnit4ClassRunner {
       }
 
       // Create stub implementations for certain methods
+      Collection<Class<?>> classesToStub = getClassesToStub();
+      Collection<StubReturns> stubReturns = getStubReturns();
       for (CtMethod method : clazz.getDeclaredMethods()) {
-        if (StubGenerator.shouldStub(method, getClassesToStub())) {
+        if (StubGenerator.shouldStub(method, classesToStub, stubReturns)) {
           method.setModifiers(method.getModifiers() & ~Modifier.NATIVE);
-          CtClass returnType = method.getReturnType();
-          // TODO(ekuefler): Handle primitives, voids, and enums in StubGenerator
-          if (returnType.isPrimitive() || returnType.getName().equals("void")) {
-            method.setBody(null);
-          } else if (returnType.isEnum()) {
-            method.setBody(String.format("return %s.values()[0];", returnType.getName()));
-          } else {
-            method.setBody(String.format(
-                "return (%s) com.google.gwtmockito.impl.StubGenerator.invoke("
-                    + "Class.forName(\"%s\"), \"%s\", \"%s\");",
-                method.getReturnType().getName(),
-                method.getReturnType().getName(),
-                clazz.getName(),
-                method.getName()));
-          }
+          method.setBody(StubGenerator.getStubBody(method, stubReturns));
         }
       }
 
       // Also stub certain constructors
-      for (Class<?> classToStub : getClassesToStub()) {
+      for (Class<?> classToStub : classesToStub) {
         if (classToStub.getName().equals(clazz.getName())) {
           for (CtConstructor constructor : clazz.getConstructors()) {
             String parameters = makeNullParameters(
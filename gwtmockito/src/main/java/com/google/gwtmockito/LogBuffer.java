@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A bounded buffer of the messages passed to GWT.log during a test annotated with
+ * {@link WithBufferedLog}. Once the buffer is full, the oldest messages are dropped to make room
+ * for new ones.
+ */
+class LogBuffer {
+
+  private final int maxEntries;
+  private final boolean errorsOnly;
+  private final Deque<String> entries = new ArrayDeque<String>();
+  private int droppedEntries;
+
+  LogBuffer(WithBufferedLog options) {
+    this.maxEntries = options.maxEntries();
+    this.errorsOnly = options.errorsOnly();
+  }
+
+  /** Adds the given message to the buffer unless it is filtered out. */
+  void log(String message, Throwable e) {
+    if (e == null && errorsOnly) {
+      return;
+    }
+    // Render the exception now, since it may be modified after being logged
+    String entry = message;
+    if (e != null) {
+      StringWriter stackTrace = new StringWriter();
+      e.printStackTrace(new PrintWriter(stackTrace));
+      entry = message + "\n" + stackTrace;
+    }
+    synchronized (this) {
+      if (maxEntries <= 0) {
+        droppedEntries++;
+        return;
+      }
+      if (entries.size() == maxEntries) {
+        entries.removeFirst();
+        droppedEntries++;
+      }
+      entries.addLast(entry);
+    }
+  }
+
+  /** Returns the buffered messages, oldest first, or an empty string if there are none. */
+  synchronized String getContents() {
+    StringBuilder contents = new StringBuilder();
+    if (droppedEntries > 0) {
+      contents.append("(").append(droppedEntries).append(" earlier messages dropped)\n");
+    }
+    for (String entry : entries) {
+      contents.append(entry).append('\n');
+    }
+    return contents.toString();
+  }
+}
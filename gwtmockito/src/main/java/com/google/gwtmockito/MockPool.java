@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import com.google.gwtmockito.impl.ReturnsCustomMocks;
+
+import org.mockito.Mockito;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A pool of mocks that can be reused between the test methods of a class annotated with
+ * {@link WithRecycledMocks}. Mocks are taken from the pool while a test runs and given back once
+ * it completes; a mock is reset when it is taken again rather than when it is given back, so that
+ * mocks that are never reused are never reset.
+ */
+class MockPool {
+
+  private final boolean returnCustomMocks;
+  private final Map<Class<?>, Deque<Object>> freeMocks = new HashMap<Class<?>, Deque<Object>>();
+
+  /**
+   * @param returnCustomMocks whether mocks created by this pool should answer with
+   *     {@link ReturnsCustomMocks} rather than Mockito's default answer
+   */
+  MockPool(boolean returnCustomMocks) {
+    this.returnCustomMocks = returnCustomMocks;
+  }
+
+  /** Returns a freshly reset mock of the given type, creating a new one if none are free. */
+  Object take(Class<?> type) {
+    Object mock;
+    synchronized (this) {
+      Deque<Object> mocks = freeMocks.get(type);
+      mock = mocks != null ? mocks.poll() : null;
+    }
+    if (mock == null) {
+      return createMock(type, returnCustomMocks);
+    }
+    Mockito.reset(mock);
+    return mock;
+  }
+
+  /** Makes the given mock, previously returned from {@link #take}, available to be taken again. */
+  synchronized void giveBack(Class<?> type, Object mock) {
+    Deque<Object> mocks = freeMocks.get(type);
+    if (mocks == null) {
+      mocks = new ArrayDeque<Object>();
+      freeMocks.put(type, mocks);
+    }
+    mocks.push(mock);
+  }
+
+  /** Creates a new mock of the given type without involving any pool. */
+  static Object createMock(Class<?> type, boolean returnCustomMocks) {
+    return returnCustomMocks ? Mockito.mock(type, new ReturnsCustomMocks()) : Mockito.mock(type);
+  }
+}
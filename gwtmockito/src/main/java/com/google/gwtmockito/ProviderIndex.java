@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import com.google.gwtmockito.processor.AutoFakeProviderProcessor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads the indexes of providers annotated with
+ * {@link com.google.gwtmockito.fakes.AutoFakeProvider} that {@link AutoFakeProviderProcessor}
+ * writes at compile time. Each jar or output directory on
+ * the classpath can contribute its own index.
+ */
+class ProviderIndex {
+
+  private ProviderIndex() {}
+
+  /**
+   * Returns a map from type names to the names of the providers registered for them in every index
+   * visible to the given classloader.
+   *
+   * @throws IllegalStateException if an index can't be read or different indexes register
+   *     different providers for the same type
+   */
+  static Map<String, String> read(ClassLoader classLoader) {
+    Map<String, String> providers = new HashMap<String, String>();
+    Enumeration<URL> indexes;
+    try {
+      indexes = classLoader.getResources(AutoFakeProviderProcessor.INDEX_RESOURCE);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to find fake provider indexes", e);
+    }
+    while (indexes.hasMoreElements()) {
+      URL index = indexes.nextElement();
+      Properties properties = new Properties();
+      try {
+        InputStream in = index.openStream();
+        try {
+          properties.load(in);
+        } finally {
+          in.close();
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to read fake provider index " + index, e);
+      }
+      for (String typeName : properties.stringPropertyNames()) {
+        String providerName = properties.getProperty(typeName);
+        String existing = providers.put(typeName, providerName);
+        if (existing != null && !existing.equals(providerName)) {
+          throw new IllegalStateException("Both " + existing + " and " + providerName
+              + " are annotated as providers for " + typeName);
+        }
+      }
+    }
+    return providers;
+  }
+}
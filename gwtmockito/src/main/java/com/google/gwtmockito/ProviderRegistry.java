@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import com.google.gwtmockito.fakes.FakeProvider;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A layer of fake providers keyed by the exact type they were registered for, optionally stacked
+ * on top of a parent layer. Providers in a layer take precedence over providers registered for the
+ * same type in its parent. The default providers live in a single immutable layer shared by every
+ * test, and each test gets its own mutable layer only once it registers a provider of its own.
+ * <p>
+ * The layer of default providers is keyed by type name rather than by type, and only instantiates
+ * each provider when a type assignable to its registered type is first requested. This avoids
+ * loading the provider classes and the GWT types they depend on in tests that never need them.
+ * <p>
+ * Each layer caches the provider it resolves for each requested type. The cache of an immutable
+ * layer is never invalidated, while the cache of a mutable layer is cleared on every registration.
+ * Layers are safe to use from multiple threads; lookups in an immutable layer never block.
+ */
+class ProviderRegistry {
+
+  /** Marks types in {@link #resolvedProviders} for which no provider is registered. */
+  private static final FakeProvider<Void> NO_PROVIDER = new FakeProvider<Void>() {
+    @Override
+    public Void getFake(Class<?> type) {
+      throw new AssertionError("Should never be called");
+    }
+  };
+
+  private final ProviderRegistry parent;
+  private final Map<Class<?>, FakeProvider<?>> registeredProviders;
+  private final boolean mutable;
+  private final Map<Class<?>, FakeProvider<?>> resolvedProviders;
+
+  /**
+   * Maps type names to the names of the provider classes registered for them in a lazy layer, or
+   * null if this layer isn't lazy. Providers are instantiated into {@link #lazyProviders}.
+   */
+  private final Map<String, String> lazyProviderClassNames;
+  private final Map<String, FakeProvider<?>> lazyProviders;
+
+  private ProviderRegistry(ProviderRegistry parent, Map<Class<?>, FakeProvider<?>> providers,
+      boolean mutable, Map<String, String> lazyProviderClassNames) {
+    this.parent = parent;
+    this.registeredProviders = providers;
+    this.mutable = mutable;
+    this.resolvedProviders = new ConcurrentHashMap<Class<?>, FakeProvider<?>>();
+    this.lazyProviderClassNames = lazyProviderClassNames;
+    this.lazyProviders = lazyProviderClassNames != null
+        ? new ConcurrentHashMap<String, FakeProvider<?>>()
+        : null;
+  }
+
+  /**
+   * Returns an immutable layer containing providers of the given classes, keyed by the names of
+   * the types they are registered for. Each provider class must have a public no-arg constructor
+   * and is only loaded once a type it is registered for is requested.
+   */
+  static ProviderRegistry lazy(Map<String, String> providerClassNames) {
+    return lazy(null, providerClassNames);
+  }
+
+  /**
+   * Returns an immutable layer like {@link #lazy(Map)}, on top of the given parent, or on top of
+   * nothing if the parent is null.
+   */
+  static ProviderRegistry lazy(ProviderRegistry parent, Map<String, String> providerClassNames) {
+    return new ProviderRegistry(
+        parent,
+        Collections.<Class<?>, FakeProvider<?>>emptyMap(),
+        false,
+        Collections.unmodifiableMap(new HashMap<String, String>(providerClassNames)));
+  }
+
+  /** Returns a new, empty, mutable layer on top of the given parent. */
+  static ProviderRegistry overlay(ProviderRegistry parent) {
+    return new ProviderRegistry(parent, new HashMap<Class<?>, FakeProvider<?>>(), true, null);
+  }
+
+  /** Returns whether this layer can be modified via {@link #register}. */
+  boolean isMutable() {
+    return mutable;
+  }
+
+  /** Registers a provider for the given type in this layer. */
+  void register(Class<?> type, FakeProvider<?> provider) {
+    if (!mutable) {
+      throw new UnsupportedOperationException("Can't register providers in an immutable layer");
+    }
+    synchronized (this) {
+      registeredProviders.put(type, provider);
+      resolvedProviders.clear();
+    }
+  }
+
+  /** Returns whether the provider for the given type has already been resolved and cached. */
+  boolean isResolved(Class<?> type) {
+    return resolvedProviders.containsKey(type);
+  }
+
+  /**
+   * Returns the provider for the most specific type in this registry that the given type is
+   * assignable to, or null if there is no such provider. Since providers are keyed by exact type,
+   * this probes each layer once for each supertype of the given type rather than scanning every
+   * provider.
+   *
+   * @throws IllegalArgumentException if multiple providers are equally specific
+   */
+  FakeProvider<?> getProvider(Class<?> type) {
+    if (mutable) {
+      // Resolve under the lock so that a concurrent registration can't be missed by the cache
+      synchronized (this) {
+        return getCachedProvider(type);
+      }
+    }
+    return getCachedProvider(type);
+  }
+
+  private FakeProvider<?> getCachedProvider(Class<?> type) {
+    FakeProvider<?> provider = resolvedProviders.get(type);
+    if (provider == null) {
+      provider = resolveProvider(type);
+      resolvedProviders.put(type, provider != null ? provider : NO_PROVIDER);
+    }
+    return provider != NO_PROVIDER ? provider : null;
+  }
+
+  /** Returns the provider registered for exactly the given type in this layer or its parents. */
+  private FakeProvider<?> getRegisteredProvider(Class<?> type) {
+    FakeProvider<?> provider = registeredProviders.get(type);
+    if (provider == null && lazyProviderClassNames != null) {
+      provider = getLazyProvider(type);
+    }
+    if (provider == null && parent != null) {
+      provider = parent.getRegisteredProvider(type);
+    }
+    return provider;
+  }
+
+  /** Returns the lazily registered provider for exactly the given type, instantiating if needed. */
+  private FakeProvider<?> getLazyProvider(Class<?> type) {
+    String providerClassName = lazyProviderClassNames.get(type.getName());
+    if (providerClassName == null) {
+      return null;
+    }
+    FakeProvider<?> provider = lazyProviders.get(type.getName());
+    if (provider == null) {
+      try {
+        provider = (FakeProvider<?>) Class.forName(
+            providerClassName, true, ProviderRegistry.class.getClassLoader())
+            .getDeclaredConstructor()
+            .newInstance();
+      } catch (InvocationTargetException e) {
+        throw new IllegalStateException(
+            "Failed to instantiate provider " + providerClassName, e.getCause());
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Failed to instantiate provider " + providerClassName, e);
+      }
+      // Another thread may have instantiated the provider concurrently, in which case use theirs
+      FakeProvider<?> existingProvider = lazyProviders.putIfAbsent(type.getName(), provider);
+      if (existingProvider != null) {
+        provider = existingProvider;
+      }
+    }
+    return provider;
+  }
+
+  private FakeProvider<?> resolveProvider(Class<?> type) {
+    // See if we have any providers for this type or its supertypes.
+    Map<Class<?>, FakeProvider<?>> legalProviders = new HashMap<Class<?>, FakeProvider<?>>();
+    for (Class<?> supertype : getSupertypes(type)) {
+      FakeProvider<?> provider = getRegisteredProvider(supertype);
+      if (provider != null) {
+        legalProviders.put(supertype, provider);
+      }
+    }
+
+    // Filter the set of legal providers to the most specific type.
+    Map<Class<?>, FakeProvider<?>> filteredProviders = new HashMap<Class<?>, FakeProvider<?>>();
+    for (Entry<Class<?>, FakeProvider<?>> candidate : legalProviders.entrySet()) {
+      boolean isSpecific = true;
+      for (Entry<Class<?>, FakeProvider<?>> other : legalProviders.entrySet()) {
+        if (candidate != other && candidate.getKey().isAssignableFrom(other.getKey())) {
+          isSpecific = false;
+          break;
+        }
+      }
+      if (isSpecific) {
+        filteredProviders.put(candidate.getKey(), candidate.getValue());
+      }
+    }
+
+    // If exactly one provider remains, use it.
+    if (filteredProviders.size() == 1) {
+      return filteredProviders.values().iterator().next();
+    } else if (filteredProviders.isEmpty()) {
+      return null;
+    } else {
+      throw new IllegalArgumentException("Can't decide which provider to use for " +
+          type.getSimpleName() +
+          ", it could be provided as any of the following: " +
+          mapToSimpleNames(filteredProviders.keySet()) +
+          ". Add a provider for " +
+          type.getSimpleName() +
+          " to resolve this ambiguity.");
+    }
+  }
+
+  /**
+   * Returns the given type along with all of its superclasses and superinterfaces, including
+   * Object for any non-primitive type. Since arrays are covariant, the supertypes of an array of
+   * objects also include the arrays of each supertype of its component type.
+   */
+  private static Set<Class<?>> getSupertypes(Class<?> type) {
+    Set<Class<?>> supertypes = new LinkedHashSet<Class<?>>();
+    Deque<Class<?>> toVisit = new ArrayDeque<Class<?>>();
+    toVisit.add(type);
+    while (!toVisit.isEmpty()) {
+      Class<?> current = toVisit.remove();
+      if (supertypes.add(current)) {
+        if (current.getSuperclass() != null) {
+          toVisit.add(current.getSuperclass());
+        }
+        toVisit.addAll(Arrays.asList(current.getInterfaces()));
+      }
+    }
+    if (!type.isPrimitive()) {
+      supertypes.add(Object.class);
+    }
+    if (type.isArray() && !type.getComponentType().isPrimitive()) {
+      for (Class<?> componentSupertype : getSupertypes(type.getComponentType())) {
+        supertypes.add(Array.newInstance(componentSupertype, 0).getClass());
+      }
+    }
+    return supertypes;
+  }
+
+  private static Set<String> mapToSimpleNames(Set<Class<?>> classes) {
+    Set<String> simpleNames = new HashSet<String>();
+    for (Class<?> clazz : classes) {
+      simpleNames.add(clazz.getSimpleName());
+    }
+    return simpleNames;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation allowing the test to replace the implementation of a particular method with one that
+ * returns a fixed value. Unlike stubbing with Mockito, the replacement is compiled into the
+ * method's bytecode when its class is loaded by {@link GwtMockitoTestRunner}, so it applies to all
+ * instances of the class and costs nothing at runtime beyond the returned expression itself. The
+ * method does not need to belong to a class listed in {@link WithClassesToStub}.
+ * <p>
+ * An example usage follows:
+ *
+ * <pre>
+ * &#064;RunWith(GwtMockitoTestRunner.class)
+ * &#064;StubReturns(type = Formatter.class, method = "getLocale", value = "en")
+ * &#064;StubReturns(type = Builder.class, method = "withName", behavior = Behavior.THIS)
+ * public class MyTest {
+ *   ...
+ * }
+ * </pre>
+ * <p>
+ * All overloads of the named method declared by the given type are replaced. Note that if you have
+ * a set of methods that need to be stubbed in every test, you might be better off implementing your
+ * own subclass of {@link GwtMockitoTestRunner} that overrides
+ * {@link GwtMockitoTestRunner#getStubReturns}, for example to read these annotations from a shared
+ * configuration class.
+ *
+ * @see WithClassesToStub
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Repeatable(StubReturns.List.class)
+public @interface StubReturns {
+
+  /** The class declaring the method to be stubbed. */
+  Class<?> type();
+
+  /** The name of the method to be stubbed. */
+  String method();
+
+  /** How the stubbed method computes its return value. Defaults to {@link Behavior#CONSTANT}. */
+  Behavior behavior() default Behavior.CONSTANT;
+
+  /**
+   * For {@link Behavior#CONSTANT}, the value to return, parsed according to the method's return
+   * type: a literal for primitives, boxed primitives and Strings, or the name of a constant for
+   * enums. If empty, the default value for the return type is used (zero, false, the empty string,
+   * the first enum constant, or null for other types).
+   */
+  String value() default "";
+
+  /**
+   * For {@link Behavior#NEW_INSTANCE} and {@link Behavior#MOCK}, the class to instantiate or mock.
+   * Defaults to the method's declared return type.
+   */
+  Class<?> instanceType() default Object.class;
+
+  /** The ways in which a stubbed method can compute its return value. */
+  enum Behavior {
+    /** Returns the constant given by {@link StubReturns#value}. */
+    CONSTANT,
+    /** Returns a new instance created with the public no-arg constructor of the return type. */
+    NEW_INSTANCE,
+    /** Returns the instance on which the method was called, allowing builder-style chaining. */
+    THIS,
+    /** Returns a new Mockito mock of the return type. */
+    MOCK,
+  }
+
+  /** Container allowing {@link StubReturns} to be repeated on a single class. */
+  @Target(ElementType.TYPE)
+  @Retention(RetentionPolicy.RUNTIME)
+  @interface List {
+    StubReturns[] value();
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation causing messages passed to GWT.log to be kept in memory for the duration of each test
+ * instead of being written to standard error. When run with {@link GwtMockitoTestRunner}, the
+ * buffered messages are discarded if the test passes and attached to the exception as a suppressed
+ * exception if it fails, so that the log of a failing test is still reported alongside it. Tests
+ * that call {@link GwtMockito#initMocks} manually can retrieve the buffered messages using
+ * {@link GwtMockito#getBufferedLog}.
+ * <p>
+ * Only the most recent {@link #maxEntries} messages are kept. GWT.log has no notion of log levels,
+ * but {@link #errorsOnly} can be used to keep only messages that were logged with an exception.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WithBufferedLog {
+  /** The maximum number of messages to keep for each test. Older messages are dropped first. */
+  int maxEntries() default 1000;
+
+  /** Whether to ignore messages that were logged without an exception. */
+  boolean errorsOnly() default false;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation causing GWT's i18n classes to behave as if the application had been compiled for the
+ * given locale, such as "de" or "pt_BR". Number constants and date/time formats are taken from the
+ * CLDR data bundled with GWT, so NumberFormat and DateTimeFormat produce the same output as they
+ * would in a browser using that locale. Without this annotation, GwtMockito uses English number
+ * constants and GWT's default date/time formats.
+ * <p>
+ * Since LocaleInfo remembers the current locale statically, this annotation is only reliable for
+ * tests run with {@link GwtMockitoTestRunner}, which loads each test class in its own classloader.
+ * Locale data is loaded the first time a locale is used, and an unknown locale causes
+ * {@link GwtMockito#initMocks} to throw an {@link IllegalArgumentException}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WithLocale {
+  /** The name of the locale to use, or "default" for GWT's default locale. */
+  String value();
+}
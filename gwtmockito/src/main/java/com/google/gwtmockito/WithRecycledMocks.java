@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation allowing the test to reuse the mocks created for {@link GwtMock} fields and for calls
+ * to GWT.create across the test methods of the annotated class, rather than creating new mocks for
+ * every test method. Mocks are returned to a pool kept for the test class when the next test
+ * starts (or when {@link GwtMockito#tearDown} is called) and are reset with
+ * {@link org.mockito.Mockito#reset} before being handed out again. This can noticeably speed up
+ * classes with many short test methods that create lots of mocks.
+ * <p>
+ * Within a single test, each call to GWT.create still returns a distinct mock as usual. However,
+ * since mocks are reused, any reference to a mock that outlives its test - for example one stored
+ * in a static field - will observe it being reset and reused by later tests. Fields annotated with
+ * Mockito's own {@link org.mockito.Mock} are not affected by this annotation.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WithRecycledMocks {}
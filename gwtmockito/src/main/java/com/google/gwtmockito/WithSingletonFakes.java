@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import com.google.gwt.i18n.client.Messages;
+import com.google.gwt.resources.client.ClientBundle;
+import com.google.gwt.resources.client.CssResource;
+import com.google.gwt.safehtml.client.SafeHtmlTemplates;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation causing GWT.create to return the same fake every time it is called for a given type
+ * within a single test, rather than asking the fake provider for a new one on every call. This
+ * matches the behavior of GWT in production, where resources and messages are effectively
+ * singletons, and avoids creating a new fake each time code under test calls GWT.create for them -
+ * for example, in the constructor of every widget.
+ * <p>
+ * By default this applies to subtypes of {@link ClientBundle}, {@link Messages},
+ * {@link CssResource} and {@link SafeHtmlTemplates}. Other types can be listed explicitly:
+ *
+ * <pre>
+ * &#064;RunWith(GwtMockitoTestRunner.class)
+ * &#064;WithSingletonFakes({MyResources.class, MyMessages.class})
+ * public class MyTest {
+ *   ...
+ * }
+ * </pre>
+ * <p>
+ * Only fakes returned by fake providers are affected. Calls to GWT.create for types without a
+ * provider still return a new mock each time, and {@link GwtMockito#getFake} always returns a new
+ * fake. Fakes are never shared between tests.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WithSingletonFakes {
+  /**
+   * The types for which GWT.create should return a single fake per test. Subtypes of these types
+   * are also affected, each getting a single fake of its own.
+   */
+  Class<?>[] value() default {
+      ClientBundle.class, Messages.class, CssResource.class, SafeHtmlTemplates.class};
+}
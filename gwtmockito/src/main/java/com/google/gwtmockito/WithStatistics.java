@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation causing GwtMockito to record how each call to GWT.create is handled, which can be
+ * retrieved using {@link GwtMockito#getStatistics}. Recording requires timing every call, so it is
+ * off unless a test class asks for it:
+ *
+ * <pre>
+ * &#064;RunWith(GwtMockitoTestRunner.class)
+ * &#064;WithStatistics
+ * public class MyTest {
+ *   ...
+ * }
+ * </pre>
+ *
+ * To record statistics for every test instead, set the system property
+ * {@value GwtMockitoStatistics#ENABLED_PROPERTY} to "true" or register
+ * {@link GwtMockitoStatisticsListener} with the test runner. The annotation then acts as a
+ * per-class override, and {@code @WithStatistics(false)} turns recording off for a class.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WithStatistics {
+  /** Whether to record statistics for the annotated test class. */
+  boolean value() default true;
+}
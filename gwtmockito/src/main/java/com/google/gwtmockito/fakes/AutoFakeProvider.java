@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito.fakes;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation causing a {@link FakeProvider} to be used for the given types in every test, without
+ * having to register it via {@link com.google.gwtmockito.GwtMockito#useProviderForType}. As with
+ * providers registered that way, the provider is also used for subtypes of the given types, and
+ * providers registered by a test take precedence over annotated ones.
+ * <p>
+ * Annotated providers are recorded in an index at compile time by
+ * {@link com.google.gwtmockito.processor.AutoFakeProviderProcessor}, which javac runs automatically
+ * when GwtMockito is on the compile classpath. GwtMockito reads the index once when it is loaded
+ * and only instantiates a provider once a type it is registered for is first created, so the
+ * classpath is never scanned. Annotated classes must therefore be public, non-abstract, and have a
+ * public no-arg constructor.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.CLASS)
+public @interface AutoFakeProvider {
+  /** The types that the annotated provider should be used to create. */
+  Class<?>[] value();
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito.fakes;
+
+import com.google.gwt.i18n.client.DateTimeFormatInfo;
+import com.google.gwt.i18n.client.constants.NumberConstantsImpl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Locale data from the CLDR tables bundled with GWT, used by the locale-specific variants of
+ * {@link FakeNumberConstantsImplProvider} and {@link FakeLocaleInfoImplProvider}. Number constants
+ * are read from GWT's NumberConstantsImpl properties files, and date and time formats come from
+ * GWT's generated DateTimeFormatInfoImpl classes. Each locale is loaded the first time it is used
+ * and then cached for the lifetime of the class loader.
+ */
+final class CldrLocaleData {
+
+  /** The name GWT uses for the locale whose data isn't specific to any language. */
+  static final String DEFAULT_LOCALE = "default";
+
+  private static final String NUMBER_CONSTANTS_RESOURCE =
+      "com/google/gwt/i18n/client/constants/NumberConstantsImpl";
+  private static final String DATE_TIME_FORMAT_INFO_CLASS =
+      "com.google.gwt.i18n.client.impl.cldr.DateTimeFormatInfoImpl";
+
+  private static final ConcurrentMap<String, CldrLocaleData> LOCALES =
+      new ConcurrentHashMap<String, CldrLocaleData>();
+
+  private final String localeName;
+  private final NumberConstantsImpl numberConstants;
+  private final Class<?> dateTimeFormatInfoClass;
+
+  /**
+   * Returns the data for the given locale, such as "de" or "pt_BR", loading it if necessary.
+   *
+   * @throws IllegalArgumentException if GWT has no data for the given locale
+   */
+  static CldrLocaleData forLocale(String localeName) {
+    CldrLocaleData data = LOCALES.get(localeName);
+    if (data == null) {
+      data = new CldrLocaleData(localeName);
+      CldrLocaleData existing = LOCALES.putIfAbsent(localeName, data);
+      if (existing != null) {
+        data = existing;
+      }
+    }
+    return data;
+  }
+
+  private CldrLocaleData(String localeName) {
+    this.localeName = localeName;
+
+    // Locales are searched from most to least specific, so "pt_BR" consults "pt_BR", "pt", "".
+    List<String> suffixes = new ArrayList<String>();
+    if (!localeName.equals(DEFAULT_LOCALE)) {
+      for (String name = localeName; !name.isEmpty();
+          name = name.substring(0, Math.max(name.lastIndexOf('_'), 0))) {
+        suffixes.add("_" + name);
+      }
+    }
+    suffixes.add("");
+
+    if (suffixes.size() > 1 && !hasLocaleData(suffixes.subList(0, suffixes.size() - 1))) {
+      throw new IllegalArgumentException("GWT has no CLDR data for locale " + localeName);
+    }
+    this.numberConstants = createNumberConstants(loadNumberConstants(suffixes));
+    this.dateTimeFormatInfoClass = findDateTimeFormatInfoClass(suffixes);
+  }
+
+  String getLocaleName() {
+    return localeName;
+  }
+
+  /** Returns the number constants for this locale. The returned object is immutable. */
+  NumberConstantsImpl getNumberConstants() {
+    return numberConstants;
+  }
+
+  /** Returns a new {@link DateTimeFormatInfo} for this locale. */
+  DateTimeFormatInfo newDateTimeFormatInfo() {
+    try {
+      return (DateTimeFormatInfo) dateTimeFormatInfoClass.getDeclaredConstructor().newInstance();
+    } catch (InvocationTargetException e) {
+      throw new IllegalStateException(
+          "Failed to create " + dateTimeFormatInfoClass.getName(), e.getCause());
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Failed to create " + dateTimeFormatInfoClass.getName(), e);
+    }
+  }
+
+  /**
+   * Merges the properties files for the given locale suffixes, letting values from more specific
+   * locales take precedence.
+   */
+  private static Map<String, String> loadNumberConstants(List<String> suffixes) {
+    Properties properties = new Properties();
+    for (int i = suffixes.size() - 1; i >= 0; i--) {
+      String resource = getNumberConstantsResource(suffixes.get(i));
+      InputStream stream = CldrLocaleData.class.getClassLoader().getResourceAsStream(resource);
+      if (stream == null) {
+        continue;
+      }
+      try {
+        try {
+          properties.load(stream);
+        } finally {
+          stream.close();
+        }
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to read " + resource, e);
+      }
+    }
+    Map<String, String> constants = new HashMap<String, String>();
+    for (String key : properties.stringPropertyNames()) {
+      constants.put(key, properties.getProperty(key));
+    }
+    return Collections.unmodifiableMap(constants);
+  }
+
+  private static NumberConstantsImpl createNumberConstants(final Map<String, String> constants) {
+    return (NumberConstantsImpl) Proxy.newProxyInstance(
+        CldrLocaleData.class.getClassLoader(),
+        new Class<?>[] {NumberConstantsImpl.class},
+        new InvocationHandler() {
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            if (method.getName().equals("equals")) {
+              return proxy == args[0];
+            } else if (method.getName().equals("hashCode")) {
+              return System.identityHashCode(proxy);
+            } else if (method.getName().equals("toString")) {
+              return "NumberConstantsImpl" + constants;
+            }
+            String value = constants.get(method.getName());
+            if (value == null) {
+              throw new UnsupportedOperationException("No CLDR value for " + method.getName());
+            }
+            return value;
+          }
+        });
+  }
+
+  private static Class<?> findDateTimeFormatInfoClass(List<String> suffixes) {
+    for (String suffix : suffixes) {
+      try {
+        return Class.forName(
+            DATE_TIME_FORMAT_INFO_CLASS + suffix, true, CldrLocaleData.class.getClassLoader());
+      } catch (ClassNotFoundException e) {
+        // Try the next less specific locale
+      }
+    }
+    throw new IllegalStateException("GWT's CLDR classes aren't on the classpath");
+  }
+
+  /**
+   * Returns whether GWT has number constants or date and time formats for any of the given locale
+   * suffixes. Regional locales such as "pt_BR" often only have data for their language.
+   */
+  private static boolean hasLocaleData(List<String> suffixes) {
+    ClassLoader classLoader = CldrLocaleData.class.getClassLoader();
+    for (String suffix : suffixes) {
+      if (classLoader.getResource(getNumberConstantsResource(suffix)) != null
+          || classLoader.getResource(
+              DATE_TIME_FORMAT_INFO_CLASS.replace('.', '/') + suffix + ".class") != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String getNumberConstantsResource(String suffix) {
+    return NUMBER_CONSTANTS_RESOURCE + suffix + ".properties";
+  }
+}
@@ -18,17 +18,36 @@ package com.google.gwtmockito.fakes;
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.resources.client.ClientBundle;
 import com.google.gwt.resources.client.CssResource;
+import com.google.gwt.resources.client.DataResource;
 import com.google.gwt.resources.client.ResourceCallback;
 import com.google.gwt.resources.client.ResourcePrototype;
 import com.google.gwt.safehtml.shared.SafeHtml;
 import com.google.gwt.safehtml.shared.SafeHtmlUtils;
 import com.google.gwt.safehtml.shared.SafeUri;
 import com.google.gwt.safehtml.shared.UriUtils;
+import com.google.gwtmockito.impl.TestContext;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Provides fake implementations of {@link ClientBundle}s. Any methods in the
@@ -36,11 +55,98 @@ import java.lang.reflect.Proxy;
  * (which by default will cause it to be generated by
  * {@link FakeMessagesProvider}. Other types of resources will be generated to
  * return unique values from their getText() or getSafeUri() methods.
+ * <p>
+ * Like real bundles, each method of a fake bundle returns the same resource
+ * every time it is called. {@link CssResource}s are created once for each
+ * bundle instance, while other resources are immutable and are shared by all
+ * bundles of the same type.
+ * <p>
+ * Providers created with {@link #FakeClientBundleProvider(boolean)} can
+ * instead back resources with the real files named by their
+ * {@link ClientBundle.Source} annotations. In that case, text resources return
+ * the content of their file from getText(), and other resources return a
+ * data: URI containing their file from getSafeUri() and getUrl(). Each file is
+ * read once and cached for the rest of the test run. {@link CssResource}s are
+ * then created by a {@link FakeCssResourceProvider} from their stylesheets,
+ * which are found in the same way as by GWT: from their
+ * {@link ClientBundle.Source} annotation, or else from a file named after the
+ * method with a .css extension, if there is one. A CssResource type that the
+ * test declares a {@link com.google.gwtmockito.GwtMock} for, or that another
+ * provider applies to, whether registered by the test or annotated with
+ * {@link AutoFakeProvider}, is still created with GWT.create.
  *
  * @author ekuefler@google.com (Erik Kuefler)
  */
 public class FakeClientBundleProvider implements FakeProvider<ClientBundle> {
 
+  /**
+   * The fake resources returned by the non-CSS methods of each bundle type, for providers that
+   * don't and do read source files, respectively.
+   */
+  private static final ClassValue<ConcurrentMap<Method, Object>> FAKE_RESOURCES =
+      new ClassValue<ConcurrentMap<Method, Object>>() {
+        @Override
+        protected ConcurrentMap<Method, Object> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<Method, Object>();
+        }
+      };
+  private static final ClassValue<ConcurrentMap<Method, Object>> SOURCED_FAKE_RESOURCES =
+      new ClassValue<ConcurrentMap<Method, Object>>() {
+        @Override
+        protected ConcurrentMap<Method, Object> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<Method, Object>();
+        }
+      };
+
+  /**
+   * The source files read so far, keyed by their content type and URL, since the same file can be
+   * served with a different {@link DataResource.MimeType} by each method naming it.
+   */
+  private static final ConcurrentMap<String, SourceFile> SOURCE_FILES =
+      new ConcurrentHashMap<String, SourceFile>();
+
+  /** The resource type that each {@link ResourceCallback} class is declared to accept. */
+  private static final ClassValue<Class<?>> CALLBACK_RESOURCE_TYPES = new ClassValue<Class<?>>() {
+    @Override
+    protected Class<?> computeValue(Class<?> callbackType) {
+      // Read the underlying resource type out of the generic parameter of the callback
+      return (Class<?>) ((ParameterizedType) callbackType.getGenericInterfaces()[0])
+          .getActualTypeArguments()[0];
+    }
+  };
+
+  private final boolean readSources;
+
+  /** Provider for CssResources backed by stylesheets, or null if sources aren't read. */
+  private final FakeCssResourceProvider cssProvider;
+
+  /** Creates a provider whose resources return their own names. */
+  public FakeClientBundleProvider() {
+    this(false);
+  }
+
+  /**
+   * Creates a provider whose resources optionally return the content of their source files.
+   *
+   * @param readSources whether resources annotated with {@link ClientBundle.Source} should be
+   *     backed by the file they name rather than returning their own names
+   */
+  public FakeClientBundleProvider(boolean readSources) {
+    this.readSources = readSources;
+    this.cssProvider = readSources ? new FakeCssResourceProvider() : null;
+  }
+
+  /**
+   * Creates a provider whose resources return the content of their source files, using the given
+   * provider to create CssResources from their stylesheets.
+   *
+   * @param cssProvider provider for CssResources, for example one adding a prefix to class names
+   */
+  public FakeClientBundleProvider(FakeCssResourceProvider cssProvider) {
+    this.readSources = true;
+    this.cssProvider = cssProvider;
+  }
+
   /**
    * Returns a new instance of the given type that implements methods as
    * described in the class description.
@@ -49,27 +155,57 @@ public class FakeClientBundleProvider implements FakeProvider<ClientBundle> {
    */
   @Override
   public ClientBundle getFake(Class<?> type) {
+    final ConcurrentMap<Method, Object> resources =
+        (readSources ? SOURCED_FAKE_RESOURCES : FAKE_RESOURCES).get(type);
+    final ConcurrentMap<Method, Object> cssResources = new ConcurrentHashMap<Method, Object>();
     return (ClientBundle) Proxy.newProxyInstance(
         FakeClientBundleProvider.class.getClassLoader(),
         new Class<?>[] {type},
         new InvocationHandler() {
           @Override
           public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
+            Object resource = resources.get(method);
+            if (resource != null) {
+              return resource;
+            }
             Class<?> returnType = method.getReturnType();
             if (CssResource.class.isAssignableFrom(returnType)) {
-              return GWT.create(returnType);
+              resource = cssResources.get(method);
+              if (resource == null) {
+                // Don't create the resource while holding a lock since GWT.create may be reentrant.
+                // Mocks and providers the test registered for the type take precedence over the
+                // stylesheet.
+                TestContext context = TestContext.current();
+                boolean hasCustomBinding = context != null
+                    && context.hasCustomBinding(returnType, CssResource.class);
+                List<URL> stylesheets =
+                    readSources && !hasCustomBinding ? findStylesheets(method) : null;
+                resource = stylesheets != null
+                    ? cssProvider.getFake(returnType, method.getName(), stylesheets)
+                    : GWT.create(returnType);
+                Object existingResource = cssResources.putIfAbsent(method, resource);
+                if (existingResource != null) {
+                  resource = existingResource;
+                }
+              }
+              return resource;
             } else {
-              return createFakeResource(returnType, method.getName());
+              resource = createFakeResource(
+                  returnType, method.getName(), readSources ? findSource(method) : null);
+              Object existingResource = resources.putIfAbsent(method, resource);
+              return existingResource != null ? existingResource : resource;
             }
           }
         });
   }
-  
+
   /**
-   * Creates a fake resource class that returns its own name where possible.
+   * Creates a fake resource class that returns its own name where possible, or the content of the
+   * given source file if it isn't null.
    */
   @SuppressWarnings("unchecked") // safe since the proxy implements type
-  private <T> T createFakeResource(Class<T> type, final String name) {
+  private static <T> T createFakeResource(
+      Class<T> type, final String name, final SourceFile source) {
     return (T) Proxy.newProxyInstance(
         FakeClientBundleProvider.class.getClassLoader(),
         new Class<?>[] {type},
@@ -77,7 +213,17 @@ public class FakeClientBundleProvider implements FakeProvider<ClientBundle> {
           @Override
           public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
             Class<?> returnType = method.getReturnType();
-            if (returnType == String.class) {
+            if (source != null && returnType == String.class) {
+              String methodName = method.getName();
+              if (methodName.equals("getText")) {
+                return source.getText();
+              } else if (methodName.equals("getUrl") || methodName.equals("getURL")) {
+                return source.getDataUri();
+              }
+              return name;
+            } else if (source != null && returnType == SafeUri.class) {
+              return UriUtils.fromTrustedString(source.getDataUri());
+            } else if (returnType == String.class) {
               return name;
             } else if (returnType == SafeHtml.class) {
               return SafeHtmlUtils.fromTrustedString(name);
@@ -89,14 +235,9 @@ public class FakeClientBundleProvider implements FakeProvider<ClientBundle> {
               return 0;
             } else if (method.getParameterTypes().length > 0
                 && method.getParameterTypes()[0] == ResourceCallback.class) {
-              // Read the underlying resource type out of the generic parameter
-              // in the method's argument
-              Class<?> resourceType = 
-                  (Class<?>) 
-                  ((ParameterizedType) args[0].getClass().getGenericInterfaces()[0])
-                  .getActualTypeArguments()[0];
+              Class<?> resourceType = CALLBACK_RESOURCE_TYPES.get(args[0].getClass());
               ((ResourceCallback<ResourcePrototype>) args[0]).onSuccess(
-                  (ResourcePrototype) createFakeResource(resourceType, name));
+                  (ResourcePrototype) createFakeResource(resourceType, name, source));
               return null;
             } else if (returnType.isInstance(proxy)) {
               // for custom methods producing ResourcePrototype
@@ -108,4 +249,149 @@ public class FakeClientBundleProvider implements FakeProvider<ClientBundle> {
           }
         });
   }
+
+  /**
+   * Returns the file named by the {@link ClientBundle.Source} annotation on the given method, or
+   * null if it has no such annotation. Like GWT, paths are first resolved relative to the package
+   * of the bundle declaring the method and then relative to the root of the classpath.
+   *
+   * @throws IllegalArgumentException if none of the files named by the annotation exist
+   */
+  private static SourceFile findSource(Method method) {
+    ClientBundle.Source sourceAnnotation = method.getAnnotation(ClientBundle.Source.class);
+    if (sourceAnnotation == null) {
+      return null;
+    }
+    for (String path : sourceAnnotation.value()) {
+      URL url = findResource(method, path);
+      if (url != null) {
+        return getSourceFile(url, method);
+      }
+    }
+    throw new IllegalArgumentException("Can't find any of the sources "
+        + Arrays.toString(sourceAnnotation.value()) + " for "
+        + method.getDeclaringClass().getSimpleName() + "." + method.getName()
+        + " on the classpath");
+  }
+
+  /**
+   * Returns the stylesheets for the given CssResource method. GWT concatenates all of the files
+   * named by the method's {@link ClientBundle.Source} annotation, or uses a file named after the
+   * method if it has no such annotation. Returns null if the method has no annotation and there is
+   * no such file.
+   *
+   * @throws IllegalArgumentException if any of the files named by the annotation don't exist
+   */
+  private static List<URL> findStylesheets(Method method) {
+    ClientBundle.Source sourceAnnotation = method.getAnnotation(ClientBundle.Source.class);
+    if (sourceAnnotation == null) {
+      URL url = findResource(method, method.getName() + ".css");
+      return url != null ? Collections.singletonList(url) : null;
+    }
+    List<URL> urls = new ArrayList<URL>();
+    for (String path : sourceAnnotation.value()) {
+      URL url = findResource(method, path);
+      if (url == null) {
+        throw new IllegalArgumentException("Can't find the stylesheet " + path + " for "
+            + method.getDeclaringClass().getSimpleName() + "." + method.getName()
+            + " on the classpath");
+      }
+      urls.add(url);
+    }
+    return urls;
+  }
+
+  /**
+   * Returns the resource at the given path relative to the package of the bundle declaring the
+   * given method, or else relative to the root of the classpath, or null if neither exists.
+   */
+  private static URL findResource(Method method, String path) {
+    Class<?> bundleType = method.getDeclaringClass();
+    ClassLoader classLoader = bundleType.getClassLoader();
+    String bundleName = bundleType.getName();
+    String packagePath = bundleName.substring(0, bundleName.lastIndexOf('.') + 1).replace('.', '/');
+    URL url = classLoader.getResource(packagePath + path);
+    if (url == null) {
+      url = classLoader.getResource(path.startsWith("/") ? path.substring(1) : path);
+    }
+    return url;
+  }
+
+  private static SourceFile getSourceFile(URL url, Method method) {
+    DataResource.MimeType mimeType = method.getAnnotation(DataResource.MimeType.class);
+    String contentType = mimeType != null
+        ? mimeType.value()
+        : URLConnection.guessContentTypeFromName(url.getPath());
+    if (contentType == null) {
+      contentType = "application/octet-stream";
+    }
+    String key = contentType + ' ' + url;
+    SourceFile source = SOURCE_FILES.get(key);
+    if (source == null) {
+      source = new SourceFile(readFully(url), contentType);
+      SourceFile existingSource = SOURCE_FILES.putIfAbsent(key, source);
+      if (existingSource != null) {
+        source = existingSource;
+      }
+    }
+    return source;
+  }
+
+  /**
+   * Returns the content of the given resource.
+   *
+   * @throws UncheckedIOException if the resource can't be read
+   */
+  static byte[] readFully(URL url) {
+    try {
+      if ("file".equals(url.getProtocol())) {
+        try {
+          return Files.readAllBytes(Paths.get(url.toURI()));
+        } catch (URISyntaxException e) {
+          // Fall back to reading the URL as a stream
+        }
+      }
+      InputStream in = url.openStream();
+      try {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+      } finally {
+        in.close();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read " + url, e);
+    }
+  }
+
+  /** The content of a resource's source file, converted to the forms resources expose. */
+  private static final class SourceFile {
+    private final byte[] content;
+    private final String contentType;
+    private volatile String text;
+    private volatile String dataUri;
+
+    SourceFile(byte[] content, String contentType) {
+      this.content = content;
+      this.contentType = contentType;
+    }
+
+    String getText() {
+      if (text == null) {
+        text = new String(content, StandardCharsets.UTF_8);
+      }
+      return text;
+    }
+
+    String getDataUri() {
+      if (dataUri == null) {
+        dataUri = "data:" + contentType + ";base64," + Base64.getEncoder().encodeToString(content);
+      }
+      return dataUri;
+    }
+  }
 }
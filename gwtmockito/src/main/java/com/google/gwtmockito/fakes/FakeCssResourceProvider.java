@@ -0,0 +1,298 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito.fakes;
+
+import com.google.gwt.resources.client.CssResource;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Provides fake implementations of {@link CssResource}s whose class name accessors return the
+ * class names defined in their stylesheet, optionally with a prefix standing in for GWT's
+ * obfuscation. As in GWT, an accessor returns the class named by its {@link CssResource.ClassName}
+ * annotation or else the class with the same name as the method, and accessors named after a
+ * {@code @def} rule return its value instead. Classes declared with {@code @external} are never
+ * prefixed. getText() returns the stylesheet with its class selectors renamed in the same way, and
+ * ensureInjected() does nothing.
+ * <p>
+ * {@link FakeClientBundleProvider}s created to read sources use this provider for the CssResources
+ * in their bundles, which supplies the stylesheets named by the bundles' {@link
+ * com.google.gwt.resources.client.ClientBundle.Source} annotations. When GWT.create'ing a
+ * CssResource directly there is no stylesheet, so accessors return their class names as if the
+ * stylesheet defined every one of them and getText() returns an empty string.
+ * <p>
+ * Each stylesheet is parsed once per prefix and its class names and accessor values are cached
+ * for the rest of the test run.
+ */
+public class FakeCssResourceProvider implements FakeProvider<CssResource> {
+
+  /** Parsed stylesheets keyed by prefix and source URLs. */
+  private static final ConcurrentMap<String, Stylesheet> STYLESHEETS =
+      new ConcurrentHashMap<String, Stylesheet>();
+
+  private final String prefix;
+
+  /** Creates a provider whose fakes return class names exactly as written in the stylesheet. */
+  public FakeCssResourceProvider() {
+    this("");
+  }
+
+  /**
+   * Creates a provider whose fakes prefix every class name that isn't declared external.
+   *
+   * @param prefix prefix to add to class names, standing in for the obfuscated names GWT generates
+   */
+  public FakeCssResourceProvider(String prefix) {
+    this.prefix = prefix;
+  }
+
+  /**
+   * Returns a new fake of the given CssResource type that isn't backed by a stylesheet.
+   *
+   * @param type interface to be implemented by the returned type
+   */
+  @Override
+  public CssResource getFake(Class<?> type) {
+    return getFake(type, type.getSimpleName(), Collections.<URL>emptyList());
+  }
+
+  /**
+   * Returns a new fake of the given CssResource type backed by the concatenation of the given
+   * stylesheets.
+   *
+   * @param name the value to return from getName()
+   * @throws java.io.UncheckedIOException if a stylesheet can't be read
+   */
+  CssResource getFake(Class<?> type, final String name, List<URL> sources) {
+    final Stylesheet stylesheet = getStylesheet(sources);
+    return (CssResource) Proxy.newProxyInstance(
+        FakeCssResourceProvider.class.getClassLoader(),
+        new Class<?>[] {type},
+        new InvocationHandler() {
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) {
+            if (args != null && args.length > 0) {
+              if (method.getName().equals("equals")) {
+                return proxy == args[0];
+              }
+              throw new UnsupportedOperationException(
+                  "Unexpected method on CssResource: " + method.getName());
+            }
+            String methodName = method.getName();
+            if (methodName.equals("ensureInjected")) {
+              return true;
+            } else if (methodName.equals("getText")) {
+              return stylesheet.text;
+            } else if (methodName.equals("getName")) {
+              return name;
+            } else if (methodName.equals("hashCode")) {
+              return System.identityHashCode(proxy);
+            } else if (methodName.equals("toString")) {
+              return "Fake " + name;
+            }
+            return stylesheet.getAccessorValue(method);
+          }
+        });
+  }
+
+  private Stylesheet getStylesheet(List<URL> sources) {
+    StringBuilder key = new StringBuilder(prefix);
+    for (URL source : sources) {
+      key.append('\n').append(source);
+    }
+    Stylesheet stylesheet = STYLESHEETS.get(key.toString());
+    if (stylesheet == null) {
+      StringBuilder css = new StringBuilder();
+      for (URL source : sources) {
+        css.append(new String(FakeClientBundleProvider.readFully(source), StandardCharsets.UTF_8))
+            .append('\n');
+      }
+      stylesheet = new Stylesheet(css.toString(), prefix);
+      Stylesheet existing = STYLESHEETS.putIfAbsent(key.toString(), stylesheet);
+      if (existing != null) {
+        stylesheet = existing;
+      }
+    }
+    return stylesheet;
+  }
+
+  /** A stylesheet parsed into the tables its fakes serve values from. */
+  private static final class Stylesheet {
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    /** Matches either a quoted string, which is skipped, or a class selector. */
+    private static final Pattern CLASS_SELECTOR = Pattern.compile(
+        "(\"(?:[^\"\\\\]|\\\\.)*\"|'(?:[^'\\\\]|\\\\.)*')|\\.(-?[_a-zA-Z][_a-zA-Z0-9-]*)");
+    private static final Pattern NUMBER = Pattern.compile("^-?[0-9]*\\.?[0-9]+");
+
+    private final String prefix;
+    private final List<Pattern> externalClasses = new ArrayList<Pattern>();
+    private final Map<String, String> definitions = new HashMap<String, String>();
+    private final Map<String, String> classNames = new HashMap<String, String>();
+    private final String text;
+    private final ConcurrentMap<Method, Object> accessorValues =
+        new ConcurrentHashMap<Method, Object>();
+
+    Stylesheet(String css, String prefix) {
+      this.prefix = prefix;
+      String source = COMMENT.matcher(css).replaceAll("");
+
+      // Find the selectors and statements that aren't inside declaration blocks. Each entry on the
+      // stack records whether the block contains rules (like @media) rather than declarations.
+      List<int[]> selectors = new ArrayList<int[]>();
+      Deque<Boolean> blocks = new ArrayDeque<Boolean>();
+      int start = 0;
+      for (int i = 0; i < source.length(); i++) {
+        char c = source.charAt(i);
+        if (c == '"' || c == '\'') {
+          i = skipString(source, i);
+        } else if (c == '}') {
+          blocks.poll();
+          start = i + 1;
+        } else if (blocks.isEmpty() || blocks.peek()) {
+          if (c == '{') {
+            String prelude = source.substring(start, i).trim();
+            if (!prelude.startsWith("@") || prelude.startsWith("@sprite")) {
+              selectors.add(new int[] {start, i});
+            }
+            blocks.push(isConditional(prelude));
+            start = i + 1;
+          } else if (c == ';') {
+            addStatement(source.substring(start, i).trim());
+            start = i + 1;
+          }
+        } else if (c == '{') {
+          blocks.push(false);
+        }
+      }
+
+      // Rename the class selectors now that all external classes are known
+      StringBuilder text = new StringBuilder(source.length());
+      int copied = 0;
+      for (int[] selector : selectors) {
+        Matcher matcher = CLASS_SELECTOR.matcher(source).region(selector[0], selector[1]);
+        while (matcher.find()) {
+          if (matcher.group(2) != null) {
+            String className = getClassName(matcher.group(2));
+            classNames.put(matcher.group(2), className);
+            text.append(source, copied, matcher.start(2)).append(className);
+            copied = matcher.end(2);
+          }
+        }
+      }
+      this.text = text.append(source, copied, source.length()).toString().trim();
+    }
+
+    /** Returns the value an accessor method of a CssResource should return. */
+    Object getAccessorValue(Method method) {
+      Object value = accessorValues.get(method);
+      if (value == null) {
+        value = computeAccessorValue(method);
+        accessorValues.putIfAbsent(method, value);
+      }
+      return value;
+    }
+
+    private Object computeAccessorValue(Method method) {
+      Class<?> returnType = method.getReturnType();
+      String definition = definitions.get(method.getName());
+      if (returnType == String.class) {
+        if (definition != null) {
+          return definition;
+        }
+        CssResource.ClassName classNameAnnotation =
+            method.getAnnotation(CssResource.ClassName.class);
+        String name = classNameAnnotation != null ? classNameAnnotation.value() : method.getName();
+        String className = classNames.get(name);
+        return className != null ? className : getClassName(name);
+      }
+      if (definition != null) {
+        Matcher number = NUMBER.matcher(definition);
+        if (number.find()) {
+          if (returnType == int.class) {
+            return (int) Double.parseDouble(number.group());
+          } else if (returnType == float.class) {
+            return Float.parseFloat(number.group());
+          } else if (returnType == double.class) {
+            return Double.parseDouble(number.group());
+          }
+        }
+      }
+      throw new UnsupportedOperationException(
+          "Can't fake " + method.getName() + " returning " + returnType.getSimpleName());
+    }
+
+    private String getClassName(String name) {
+      for (Pattern external : externalClasses) {
+        if (external.matcher(name).matches()) {
+          return name;
+        }
+      }
+      return prefix + name;
+    }
+
+    private void addStatement(String statement) {
+      if (statement.startsWith("@external")) {
+        for (String name : statement.substring("@external".length()).trim().split("[\\s,]+")) {
+          if (!name.isEmpty()) {
+            name = name.startsWith(".") ? name.substring(1) : name;
+            externalClasses.add(Pattern.compile(Pattern.quote(name).replace("*", "\\E.*\\Q")));
+          }
+        }
+      } else if (statement.startsWith("@def")) {
+        String[] parts = statement.substring("@def".length()).trim().split("\\s+", 2);
+        if (parts.length == 2) {
+          definitions.put(parts[0], parts[1]);
+        }
+      }
+    }
+
+    /** Returns whether a block with the given prelude contains rules rather than declarations. */
+    private static boolean isConditional(String prelude) {
+      return prelude.startsWith("@media") || prelude.startsWith("@supports")
+          || prelude.startsWith("@if") || prelude.startsWith("@elif")
+          || prelude.startsWith("@else");
+    }
+
+    /** Returns the index of the quote closing the string that starts at the given index. */
+    private static int skipString(String source, int start) {
+      char quote = source.charAt(start);
+      for (int i = start + 1; i < source.length(); i++) {
+        char c = source.charAt(i);
+        if (c == '\\') {
+          i++;
+        } else if (c == quote) {
+          return i;
+        }
+      }
+      return source.length();
+    }
+  }
+}
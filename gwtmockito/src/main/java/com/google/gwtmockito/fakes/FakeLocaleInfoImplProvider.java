@@ -22,12 +22,47 @@ import com.google.gwt.i18n.client.impl.LocaleInfoImpl;
 /**
  * Provides a fake implementations of {@link LocaleInfoImpl} that makes use of
  * {@link DefaultDateTimeFormatInfo}, which makes date/time formatting possible in tests.
+ * Alternatively, a provider can be created for a specific locale, in which case the fake uses the
+ * date/time formats GWT generated for that locale from CLDR data.
  * 
+ * @see com.google.gwtmockito.WithLocale
  * @author ekuefler@google.com (Erik Kuefler)
  */
 public class FakeLocaleInfoImplProvider implements FakeProvider<LocaleInfoImpl> {
+
+  /** Data for the locale to fake, or null to use the default formats. */
+  private final CldrLocaleData localeData;
+
+  /** Creates a provider whose fakes use {@link DefaultDateTimeFormatInfo}. */
+  public FakeLocaleInfoImplProvider() {
+    this.localeData = null;
+  }
+
+  /**
+   * Creates a provider whose fakes report the given locale name and use its date/time formats.
+   *
+   * @param localeName a locale known to GWT, such as "de" or "pt_BR"
+   * @throws IllegalArgumentException if GWT has no data for the given locale
+   */
+  public FakeLocaleInfoImplProvider(String localeName) {
+    this.localeData = CldrLocaleData.forLocale(localeName);
+  }
+
   @Override
   public LocaleInfoImpl getFake(Class<?> type) {
+    if (localeData != null) {
+      return new LocaleInfoImpl() {
+        @Override
+        public DateTimeFormatInfo getDateTimeFormatInfo() {
+          return localeData.newDateTimeFormatInfo();
+        }
+
+        @Override
+        public String getLocaleName() {
+          return localeData.getLocaleName();
+        }
+      };
+    }
     return new LocaleInfoImpl() {
       @Override
       public DateTimeFormatInfo getDateTimeFormatInfo() {
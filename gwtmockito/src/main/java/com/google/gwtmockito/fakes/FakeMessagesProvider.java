@@ -22,7 +22,8 @@ import com.google.gwt.safehtml.shared.SafeUri;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Provides fake implementations of {@link com.google.gwt.i18n.client.Messages},
@@ -32,10 +33,30 @@ import java.util.Arrays;
  * based on the method name and the arguments passed to it. The exact format of
  * the message is undefined and is subject to change.
  *
+ * @see GeneratedMessagesProvider
+ * @see FakeSafeHtmlTemplatesProvider
  * @author ekuefler@google.com (Erik Kuefler)
  */
 public class FakeMessagesProvider<T> implements FakeProvider<T> {
 
+  /**
+   * Characters reserved for each argument when sizing a message, enough for a separator plus a
+   * typical number or short string so that most messages are built without growing the buffer.
+   */
+  private static final int ESTIMATED_ARGUMENT_LENGTH = 18;
+
+  /**
+   * The handler shared by every fake of each interface, which looks up how to implement each of its
+   * methods in a table computed when the interface is first faked.
+   */
+  private static final ClassValue<FakeProxyFactory> PROXY_FACTORIES =
+      new ClassValue<FakeProxyFactory>() {
+        @Override
+        protected FakeProxyFactory computeValue(Class<?> type) {
+          return new FakeProxyFactory(type);
+        }
+      };
+
   /**
    * Returns a new instance of the given type that implements methods as
    * described in the class description.
@@ -45,43 +66,142 @@ public class FakeMessagesProvider<T> implements FakeProvider<T> {
   @Override
   @SuppressWarnings("unchecked") // safe since the proxy implements type
   public T getFake(Class<?> type) {
-    return (T) Proxy.newProxyInstance(FakeMessagesProvider.class.getClassLoader(), new Class<?>[] {type},
-        new InvocationHandler() {
-          @Override
-          public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
-            if (method.getName().equals("ensureInjected")) {
-              return true;
-            } else if (method.getName().equals("hashCode")) {
-              return proxy.getClass().hashCode();
-            } else if (method.getName().equals("equals")) {
-              return proxy.getClass().equals(args[0].getClass());
-            } else if (method.getReturnType() == String.class) {
-              return buildMessage(method, args);
-            } else if (method.getReturnType() == SafeHtml.class) {
-              return SafeHtmlUtils.fromTrustedString(buildMessage(method, args));
-            } else {
-              throw new IllegalArgumentException(method.getName()
-                  + " must return either String or SafeHtml");
-            }
-          }
-        });
+    return (T) PROXY_FACTORIES.get(type).newProxy();
   }
 
-  private String buildMessage(Method method, Object[] args) {
-    StringBuilder message = new StringBuilder(method.getName());
+  /** The ways in which methods of a fake can be implemented. */
+  private enum MethodKind {
+    ENSURE_INJECTED {
+      @Override
+      Object invoke(Object proxy, Method method, Object[] args) {
+        return true;
+      }
+    },
+    HASH_CODE {
+      @Override
+      Object invoke(Object proxy, Method method, Object[] args) {
+        return proxy.getClass().hashCode();
+      }
+    },
+    EQUALS {
+      @Override
+      Object invoke(Object proxy, Method method, Object[] args) {
+        return proxy.getClass().equals(args[0].getClass());
+      }
+    },
+    STRING {
+      @Override
+      Object invoke(Object proxy, Method method, Object[] args) {
+        return buildMessage(method, args);
+      }
+    },
+    SAFE_HTML {
+      @Override
+      Object invoke(Object proxy, Method method, Object[] args) {
+        return SafeHtmlUtils.fromTrustedString(buildMessage(method, args));
+      }
+    },
+    UNSUPPORTED {
+      @Override
+      Object invoke(Object proxy, Method method, Object[] args) {
+        throw new IllegalArgumentException(method.getName()
+            + " must return either String or SafeHtml");
+      }
+    };
+
+    abstract Object invoke(Object proxy, Method method, Object[] args);
+
+    static MethodKind of(Method method) {
+      if (method.getName().equals("ensureInjected")) {
+        return ENSURE_INJECTED;
+      } else if (method.getName().equals("hashCode")) {
+        return HASH_CODE;
+      } else if (method.getName().equals("equals")) {
+        return EQUALS;
+      } else if (method.getReturnType() == String.class) {
+        return STRING;
+      } else if (method.getReturnType() == SafeHtml.class) {
+        return SAFE_HTML;
+      } else {
+        return UNSUPPORTED;
+      }
+    }
+  }
+
+  /**
+   * How a single method of a fake is implemented. Methods without arguments always return the same
+   * message, so it is computed once up front.
+   */
+  private static final class MethodImplementation {
+    private final MethodKind kind;
+    private final Object constantResult;
+
+    MethodImplementation(Method method) {
+      this.kind = MethodKind.of(method);
+      this.constantResult = method.getParameterTypes().length == 0
+              && (kind == MethodKind.STRING || kind == MethodKind.SAFE_HTML)
+          ? kind.invoke(null, method, null)
+          : null;
+    }
+
+    Object invoke(Object proxy, Method method, Object[] args) {
+      return constantResult != null ? constantResult : kind.invoke(proxy, method, args);
+    }
+  }
+
+  /** Creates fakes of a single interface. */
+  private static final class FakeProxyFactory implements InvocationHandler {
+    private final Class<?>[] interfaces;
+    private final Map<Method, MethodImplementation> implementations =
+        new HashMap<Method, MethodImplementation>();
+
+    FakeProxyFactory(Class<?> type) {
+      interfaces = new Class<?>[] {type};
+      for (Method method : type.getMethods()) {
+        implementations.put(method, new MethodImplementation(method));
+      }
+      for (Method method : Object.class.getMethods()) {
+        implementations.put(method, new MethodImplementation(method));
+      }
+    }
+
+    Object newProxy() {
+      // The proxy class itself is cached by Proxy for each class loader and list of interfaces
+      return Proxy.newProxyInstance(FakeMessagesProvider.class.getClassLoader(), interfaces, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      MethodImplementation implementation = implementations.get(method);
+      if (implementation == null) {
+        implementation = new MethodImplementation(method);
+      }
+      return implementation.invoke(proxy, method, args);
+    }
+  }
+
+  private static String buildMessage(Method method, Object[] args) {
+    String name = method.getName();
     if (args == null || args.length == 0) {
-      return message.toString();
+      return name;
     }
 
-    message.append('(');
-    message.append(stringify(args[0]));
-    for (Object arg : Arrays.asList(args).subList(1, args.length)) {
-      message.append(", ").append(stringify(arg));
+    StringBuilder message =
+        new StringBuilder(name.length() + 2 + args.length * ESTIMATED_ARGUMENT_LENGTH)
+        .append(name)
+        .append('(')
+        .append(stringify(args[0]));
+    for (int i = 1; i < args.length; i++) {
+      message.append(", ").append(stringify(args[i]));
     }
     return message.append(')').toString();
   }
 
-  private String stringify(Object arg) {
+  /**
+   * Returns the string representation of the given argument as it appears in a fake message. This
+   * is public so that it can be called by classes generated by {@link GeneratedMessagesProvider}.
+   */
+  public static String stringify(Object arg) {
     if (arg == null) {
       return "null";
     } else if (arg instanceof SafeHtml) {
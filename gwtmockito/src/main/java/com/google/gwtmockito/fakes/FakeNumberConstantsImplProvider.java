@@ -18,12 +18,37 @@ import com.google.gwt.i18n.client.constants.NumberConstantsImpl;
 /**
  * Provides a fake implementation of {@link NumberConstantsImpl} using a hardcoded English locale.
  * The data here come from GWT's com/google/gwt/i18n/client/constants/NumberConstants_en.properties.
+ * Alternatively, a provider can be created for a specific locale, in which case the fake is backed
+ * by the properties GWT bundles for that locale.
  *
+ * @see com.google.gwtmockito.WithLocale
  * @author ekuefler@google.com (Erik Kuefler)
  */
 public class FakeNumberConstantsImplProvider implements FakeProvider<NumberConstantsImpl> {
+
+  /** Data for the locale to fake, or null to use the hardcoded English constants. */
+  private final CldrLocaleData localeData;
+
+  /** Creates a provider whose fakes use hardcoded English constants. */
+  public FakeNumberConstantsImplProvider() {
+    this.localeData = null;
+  }
+
+  /**
+   * Creates a provider whose fakes use the number constants of the given locale.
+   *
+   * @param localeName a locale known to GWT, such as "de" or "pt_BR"
+   * @throws IllegalArgumentException if GWT has no data for the given locale
+   */
+  public FakeNumberConstantsImplProvider(String localeName) {
+    this.localeData = CldrLocaleData.forLocale(localeName);
+  }
+
   @Override
   public NumberConstantsImpl getFake(Class<?> type) {
+    if (localeData != null) {
+      return localeData.getNumberConstants();
+    }
     return new NumberConstantsImpl() {
       @Override
       public String zeroDigit() {
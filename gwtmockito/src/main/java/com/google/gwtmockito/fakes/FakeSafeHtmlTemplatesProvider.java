@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito.fakes;
+
+import com.google.gwt.safecss.shared.SafeStyles;
+import com.google.gwt.safehtml.client.SafeHtmlTemplates;
+import com.google.gwt.safehtml.shared.SafeHtml;
+import com.google.gwt.safehtml.shared.SafeHtmlUtils;
+import com.google.gwt.safehtml.shared.SafeUri;
+import com.google.gwt.safehtml.shared.UriUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Provides fake implementations of {@link SafeHtmlTemplates} that render the HTML described by
+ * each method's {@link SafeHtmlTemplates.Template} annotation, rather than the method name and
+ * arguments returned by {@link FakeMessagesProvider}. Like the templates GWT generates, arguments
+ * are HTML-escaped unless they are {@link SafeHtml} inserted between tags, and String arguments at
+ * the start of URL attributes such as href are sanitized with {@link UriUtils#sanitizeUri}.
+ * <p>
+ * Each template is parsed into literal segments and placeholders the first time its interface is
+ * faked, so rendering only needs to escape the arguments and concatenate the segments. This
+ * provider isn't used by default; register it with
+ * {@link com.google.gwtmockito.GwtMockito#useProviderForType} to use it:
+ *
+ * <pre>
+ * GwtMockito.useProviderForType(SafeHtmlTemplates.class, new FakeSafeHtmlTemplatesProvider());
+ * </pre>
+ */
+public class FakeSafeHtmlTemplatesProvider implements FakeProvider<SafeHtmlTemplates> {
+
+  /** The handler shared by every fake of each interface, holding its compiled templates. */
+  private static final ClassValue<TemplatesProxyFactory> PROXY_FACTORIES =
+      new ClassValue<TemplatesProxyFactory>() {
+        @Override
+        protected TemplatesProxyFactory computeValue(Class<?> type) {
+          return new TemplatesProxyFactory(type);
+        }
+      };
+
+  /**
+   * Returns a new instance of the given type that renders templates as described in the class
+   * description.
+   *
+   * @param type interface to be implemented by the returned type
+   */
+  @Override
+  public SafeHtmlTemplates getFake(Class<?> type) {
+    return (SafeHtmlTemplates) PROXY_FACTORIES.get(type).newProxy();
+  }
+
+  /** Creates proxies for one templates interface and implements their methods. */
+  private static final class TemplatesProxyFactory implements InvocationHandler {
+    private final Class<?>[] interfaces;
+    private final Map<Method, CompiledTemplate> templates = new HashMap<Method, CompiledTemplate>();
+
+    TemplatesProxyFactory(Class<?> type) {
+      interfaces = new Class<?>[] {type};
+      for (Method method : type.getMethods()) {
+        SafeHtmlTemplates.Template template =
+            method.getAnnotation(SafeHtmlTemplates.Template.class);
+        if (template != null) {
+          templates.put(method, new CompiledTemplate(template.value()));
+        }
+      }
+    }
+
+    Object newProxy() {
+      return Proxy.newProxyInstance(
+          FakeSafeHtmlTemplatesProvider.class.getClassLoader(), interfaces, this);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+      CompiledTemplate template = templates.get(method);
+      if (template != null) {
+        return template.render(args);
+      } else if (method.getName().equals("hashCode")) {
+        return System.identityHashCode(proxy);
+      } else if (method.getName().equals("equals")) {
+        return proxy == args[0];
+      } else if (method.getName().equals("toString")) {
+        return "Fake " + proxy.getClass().getInterfaces()[0].getSimpleName();
+      }
+      throw new UnsupportedOperationException(
+          method.getName() + " has no @Template annotation");
+    }
+  }
+
+  /** The ways in which an argument can be inserted into a template. */
+  private enum Context {
+    /** Between tags, where SafeHtml is inserted as is. */
+    TEXT,
+    /** Inside an attribute value. */
+    ATTRIBUTE,
+    /** At the start of the value of an attribute containing a URL. */
+    URL_ATTRIBUTE_START
+  }
+
+  /** A template parsed into literal segments separated by placeholders for arguments. */
+  private static final class CompiledTemplate {
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{(\\d+)\\}");
+    private static final Set<String> URL_ATTRIBUTES = new HashSet<String>(Arrays.asList(
+        "action", "background", "cite", "codebase", "data", "formaction", "href", "icon",
+        "longdesc", "manifest", "poster", "src", "usemap"));
+
+    private final String[] literals;
+    private final int[] argumentIndexes;
+    private final Context[] contexts;
+    private final int literalLength;
+
+    CompiledTemplate(String template) {
+      List<String> literals = new ArrayList<String>();
+      List<Integer> argumentIndexes = new ArrayList<Integer>();
+      List<Context> contexts = new ArrayList<Context>();
+
+      // Track enough of the HTML structure to know where each placeholder appears
+      boolean inTag = false;
+      char quote = 0;
+      String attribute = null;
+      int attributeStart = -1;
+      int literalStart = 0;
+      Matcher placeholder = PLACEHOLDER.matcher(template);
+      for (int i = 0; i < template.length(); i++) {
+        char c = template.charAt(i);
+        if (c == '{' && placeholder.find(i) && placeholder.start() == i) {
+          literals.add(template.substring(literalStart, i));
+          argumentIndexes.add(Integer.parseInt(placeholder.group(1)));
+          if (!inTag) {
+            contexts.add(Context.TEXT);
+          } else if (quote != 0 && i == attributeStart
+              && URL_ATTRIBUTES.contains(attribute.toLowerCase())) {
+            contexts.add(Context.URL_ATTRIBUTE_START);
+          } else {
+            contexts.add(Context.ATTRIBUTE);
+          }
+          literalStart = placeholder.end();
+          i = placeholder.end() - 1;
+        } else if (!inTag) {
+          inTag = c == '<';
+        } else if (quote != 0) {
+          if (c == quote) {
+            quote = 0;
+          }
+        } else if (c == '>') {
+          inTag = false;
+        } else if (c == '"' || c == '\'') {
+          quote = c;
+          attributeStart = i + 1;
+          attribute = getAttributeName(template, i);
+        }
+      }
+      literals.add(template.substring(literalStart));
+
+      this.literals = literals.toArray(new String[literals.size()]);
+      this.argumentIndexes = new int[argumentIndexes.size()];
+      for (int i = 0; i < this.argumentIndexes.length; i++) {
+        this.argumentIndexes[i] = argumentIndexes.get(i);
+      }
+      this.contexts = contexts.toArray(new Context[contexts.size()]);
+      int literalLength = 0;
+      for (String literal : this.literals) {
+        literalLength += literal.length();
+      }
+      this.literalLength = literalLength;
+    }
+
+    SafeHtml render(Object[] args) {
+      StringBuilder html = new StringBuilder(literalLength + 16 * argumentIndexes.length);
+      html.append(literals[0]);
+      for (int i = 0; i < argumentIndexes.length; i++) {
+        appendArgument(html, args[argumentIndexes[i]], contexts[i]);
+        html.append(literals[i + 1]);
+      }
+      return SafeHtmlUtils.fromTrustedString(html.toString());
+    }
+
+    private static void appendArgument(StringBuilder html, Object arg, Context context) {
+      if (arg instanceof SafeHtml) {
+        String value = ((SafeHtml) arg).asString();
+        html.append(context == Context.TEXT ? value : SafeHtmlUtils.htmlEscape(value));
+      } else if (arg instanceof SafeStyles) {
+        html.append(SafeHtmlUtils.htmlEscape(((SafeStyles) arg).asString()));
+      } else if (arg instanceof SafeUri) {
+        html.append(SafeHtmlUtils.htmlEscape(((SafeUri) arg).asString()));
+      } else if (context == Context.URL_ATTRIBUTE_START && arg instanceof String) {
+        html.append(SafeHtmlUtils.htmlEscape(UriUtils.sanitizeUri((String) arg)));
+      } else {
+        html.append(SafeHtmlUtils.htmlEscape(FakeMessagesProvider.stringify(arg)));
+      }
+    }
+
+    /** Returns the name of the attribute whose quoted value starts at the given index. */
+    private static String getAttributeName(String template, int quoteIndex) {
+      int end = quoteIndex - 1;
+      while (end >= 0 && Character.isWhitespace(template.charAt(end))) {
+        end--;
+      }
+      // Skip the equals sign and any whitespace before it
+      if (end >= 0 && template.charAt(end) == '=') {
+        end--;
+      }
+      while (end >= 0 && Character.isWhitespace(template.charAt(end))) {
+        end--;
+      }
+      int start = end;
+      while (start >= 0 && !Character.isWhitespace(template.charAt(start))
+          && template.charAt(start) != '<') {
+        start--;
+      }
+      return template.substring(start + 1, end + 1);
+    }
+  }
+}
@@ -16,18 +16,39 @@
 package com.google.gwtmockito.fakes;
 
 import com.google.gwt.core.client.GWT;
+import com.google.gwt.event.shared.EventHandler;
+import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.event.shared.HandlerManager;
+import com.google.gwt.event.shared.HasHandlers;
+import com.google.gwt.event.shared.UmbrellaException;
 import com.google.gwt.uibinder.client.UiBinder;
 import com.google.gwt.uibinder.client.UiField;
+import com.google.gwt.uibinder.client.UiHandler;
+import com.google.gwtmockito.impl.FieldHandle;
+import com.google.gwtmockito.impl.TestContext;
 
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
-import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Provides fake implementations of {@link UiBinder}. The fake implementation
@@ -35,11 +56,120 @@ import java.util.List;
  * obtained from GWT.create. {@link com.google.gwtmockito.GwtMockito} can be
  * used to control values returned from GWT.create and hence affect how fields
  * are populated.
+ * <p>
+ * Methods annotated with {@link UiHandler} are registered as handlers for the
+ * fields they name, as they would be by a real binder. If such a field is a
+ * mock, the handlers aren't added to the mock itself. Instead, its fireEvent
+ * method is stubbed to dispatch events directly to them, so a test can invoke a
+ * handler by calling something like
+ * {@code view.button.fireEvent(new ClickEvent() {})}. A mock shared by several
+ * views, such as a {@link com.google.gwtmockito.GwtMock} field, dispatches
+ * events to the handlers of all of them for the rest of the test. Binding a
+ * handler to a mock that doesn't implement {@link HasHandlers}, or for an
+ * event class without a static getType method, fails, since events fired on
+ * the mock couldn't reach the handler.
+ * <p>
+ * If a fake binder class was generated for the given interface by
+ * {@link com.google.gwtmockito.processor.FakeUiBinderProcessor}, an instance
+ * of that class is returned. Otherwise, the fake is a dynamic proxy that
+ * populates fields reflectively.
  *
  * @author ekuefler@google.com (Erik Kuefler)
  */
 public class FakeUiBinderProvider implements FakeProvider<UiBinder<?, ?>>{
 
+  /**
+   * The suffix appended to the names of fake binders generated for binder interfaces. The name of
+   * a generated binder is the binary name of its interface, with '$' replaced by '_', followed by
+   * this suffix.
+   */
+  public static final String GENERATED_BINDER_SUFFIX = "_GwtMockitoFake";
+
+  /**
+   * The constructor of the generated fake binder for each binder interface, or null if none was
+   * generated.
+   */
+  private static final ClassValue<Constructor<?>> GENERATED_BINDERS =
+      new ClassValue<Constructor<?>>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+          String name = type.getName();
+          int packageEnd = name.lastIndexOf('.') + 1;
+          String generatedName = name.substring(0, packageEnd)
+              + name.substring(packageEnd).replace('$', '_') + GENERATED_BINDER_SUFFIX;
+          try {
+            Constructor<?> constructor =
+                Class.forName(generatedName, false, type.getClassLoader()).getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+          } catch (ClassNotFoundException e) {
+            return null;
+          } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(generatedName + " has no default constructor", e);
+          }
+        }
+      };
+
+  /**
+   * The non-provided {@link UiField}s of each owner class and its superclasses, computed the first
+   * time a binder is used with an owner of that class.
+   */
+  private static final ClassValue<List<FieldHandle>> UI_FIELDS =
+      new ClassValue<List<FieldHandle>>() {
+        @Override
+        protected List<FieldHandle> computeValue(Class<?> type) {
+          List<FieldHandle> fields = new ArrayList<FieldHandle>();
+          for (Field field : type.getDeclaredFields()) {
+            if (field.isAnnotationPresent(UiField.class)
+                && !field.getAnnotation(UiField.class).provided()) {
+              fields.add(new FieldHandle(field));
+            }
+          }
+          if (type.getSuperclass() != null) {
+            fields.addAll(get(type.getSuperclass()));
+          }
+          return Collections.unmodifiableList(fields);
+        }
+      };
+
+  /**
+   * The {@link UiHandler} methods of each owner class and its superclasses, with one binding for
+   * each field named by each method.
+   */
+  private static final ClassValue<List<UiHandlerBinding>> UI_HANDLERS =
+      new ClassValue<List<UiHandlerBinding>>() {
+        @Override
+        protected List<UiHandlerBinding> computeValue(Class<?> type) {
+          List<UiHandlerBinding> handlers = new ArrayList<UiHandlerBinding>();
+          for (Method method : type.getDeclaredMethods()) {
+            if (method.isAnnotationPresent(UiHandler.class)) {
+              for (String fieldName : method.getAnnotation(UiHandler.class).value()) {
+                handlers.add(new UiHandlerBinding(method, findUiField(type, fieldName)));
+              }
+            }
+          }
+          if (type.getSuperclass() != null) {
+            handlers.addAll(get(type.getSuperclass()));
+          }
+          return Collections.unmodifiableList(handlers);
+        }
+      };
+
+  /** The UI root type of each binder interface. */
+  private static final ClassValue<Class<?>> UI_ROOT_TYPES = new ClassValue<Class<?>>() {
+    @Override
+    protected Class<?> computeValue(Class<?> type) {
+      // The UI root type is the first generic type parameter of the UiBinder
+      ParameterizedType parameterizedType = (ParameterizedType) type.getGenericInterfaces()[0];
+      Type uiRootType = parameterizedType.getActualTypeArguments()[0];
+      if (uiRootType instanceof ParameterizedType) {
+        return (Class<?>) ((ParameterizedType) uiRootType).getRawType();
+      } else {
+        return (Class<?>) uiRootType;
+      }
+    }
+  };
+
   /**
    * Returns a new instance of FakeUiBinder that implements the given interface.
    * This is accomplished by returning a dynamic proxy object that delegates
@@ -50,6 +180,16 @@ public class FakeUiBinderProvider implements FakeProvider<UiBinder<?, ?>>{
    */
   @Override
   public UiBinder<?, ?> getFake(final Class<?> type) {
+    Constructor<?> generatedBinder = GENERATED_BINDERS.get(type);
+    if (generatedBinder != null) {
+      try {
+        return (UiBinder<?, ?>) generatedBinder.newInstance();
+      } catch (InvocationTargetException e) {
+        throw new RuntimeException(e.getCause());
+      } catch (ReflectiveOperationException e) {
+        throw new AssertionError("Impossible since the constructor was made accessible");
+      }
+    }
     return (UiBinder<?, ?>) Proxy.newProxyInstance(
         FakeUiBinderProvider.class.getClassLoader(),
         new Class<?>[] {type},
@@ -57,35 +197,257 @@ public class FakeUiBinderProvider implements FakeProvider<UiBinder<?, ?>>{
           @Override
           public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
             // createAndBindUi is the only method defined by UiBinder
-            for (Field field : getAllFields(args[0].getClass())) {
-              if (field.isAnnotationPresent(UiField.class)
-                  && !field.getAnnotation(UiField.class).provided()) {
-                field.setAccessible(true);
-                field.set(args[0], GWT.create(field.getType()));
-              }
-            }
-            return GWT.create(getUiRootType(type));
+            return createAndBindUi(type, args[0]);
           }
         });
   }
 
-  private <T> Class<?> getUiRootType(Class<T> type) {
-    // The UI root type is the first generic type parameter of the UiBinder
-    ParameterizedType parameterizedType = (ParameterizedType) type.getGenericInterfaces()[0];
-    Type uiRootType = parameterizedType.getActualTypeArguments()[0];
-    if (uiRootType instanceof ParameterizedType) {
-      return (Class<?>) ((ParameterizedType) uiRootType).getRawType();
-    } else {
-      return (Class<?>) uiRootType;
+  /**
+   * Implements {@link UiBinder#createAndBindUi} for a fake of the given binder type by populating
+   * the non-provided {@link UiField}s of the owner and its superclasses using GWT.create, then
+   * returning a new instance of the binder's UI root type from GWT.create. This is public so that
+   * generated fake binders can fall back to it for owners they weren't generated for.
+   *
+   * @param type binder interface directly extending {@link UiBinder}
+   * @param owner the object whose fields should be populated
+   */
+  @SuppressWarnings("unchecked") // the root type is the first type argument of the binder
+  public static <U> U createAndBindUi(Class<?> type, Object owner) {
+    for (FieldHandle field : UI_FIELDS.get(owner.getClass())) {
+      field.set(owner, GWT.create(field.getType()));
+    }
+    bindUiHandlers(owner);
+    return (U) GWT.create(UI_ROOT_TYPES.get(type));
+  }
+
+  /**
+   * Registers the {@link UiHandler} methods of the given owner and its superclasses as handlers
+   * for the fields they name. Fields that are mocks have their fireEvent method stubbed to dispatch
+   * events to the handlers registered for them, while handlers are added to other fields by calling
+   * the appropriate addXxxHandler method. This is public so that generated fake binders can call it
+   * once they have populated the owner's fields.
+   *
+   * @param owner the object whose fields have been populated
+   */
+  public static void bindUiHandlers(Object owner) {
+    List<UiHandlerBinding> handlers = UI_HANDLERS.get(owner.getClass());
+    if (handlers.isEmpty()) {
+      return;
+    }
+    for (UiHandlerBinding handler : handlers) {
+      Object field = handler.field.get(owner);
+      if (field == null) {
+        continue;
+      }
+      if (!Mockito.mockingDetails(field).isMock()) {
+        handler.addTo(field, owner);
+      } else if (!(field instanceof HasHandlers)) {
+        throw new IllegalStateException("Can't dispatch events fired on mock "
+            + handler.field.getName() + " to " + handler.method + " since the mock doesn't "
+            + "implement HasHandlers");
+      } else if (handler.eventType == null) {
+        throw new IllegalStateException("Can't dispatch events fired on mock "
+            + handler.field.getName() + " to " + handler.method + " since "
+            + handler.eventClass.getName() + " has no static getType method");
+      } else {
+        handler.addTo(getHandlerManager((HasHandlers) field), owner);
+      }
+    }
+  }
+
+  /**
+   * Returns the manager that events fired on the given mock are dispatched to, stubbing its
+   * fireEvent method to dispatch to a new manager if it hasn't been already during the current
+   * test. Outside of a test that GwtMockito was initialized for, the mock is always stubbed anew.
+   */
+  private static HandlerManager getHandlerManager(HasHandlers mock) {
+    TestContext context = TestContext.current();
+    Map<Object, HandlerManager> managers = context != null
+        ? context.getHandlerManagers()
+        : new IdentityHashMap<Object, HandlerManager>();
+    synchronized (managers) {
+      HandlerManager manager = managers.get(mock);
+      if (manager == null) {
+        manager = new HandlerManager(mock);
+        Mockito.doAnswer(new DispatchToManager(manager))
+            .when(mock).fireEvent(Matchers.<GwtEvent<?>>any());
+        managers.put(mock, manager);
+      }
+      return manager;
+    }
+  }
+
+  /** Finds the {@link UiField} with the given name in the given class or its superclasses. */
+  private static Field findUiField(Class<?> type, String name) {
+    for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+      for (Field field : c.getDeclaredFields()) {
+        if (field.getName().equals(name) && field.isAnnotationPresent(UiField.class)) {
+          return field;
+        }
+      }
     }
+    throw new IllegalStateException("No @UiField named " + name + " in " + type.getName());
   }
 
-  private List<Field> getAllFields(Class<?> type) {
-    List<Field> fields = new LinkedList<Field>();
-    fields.addAll(Arrays.asList(type.getDeclaredFields()));
-    if (type.getSuperclass() != null) {
-      fields.addAll(getAllFields(type.getSuperclass()));
+  /** An answer to fireEvent that dispatches the event to the handlers in a manager. */
+  private static final class DispatchToManager implements Answer<Void> {
+    private final HandlerManager manager;
+
+    DispatchToManager(HandlerManager manager) {
+      this.manager = manager;
+    }
+
+    @Override
+    public Void answer(InvocationOnMock invocation) {
+      try {
+        manager.fireEvent((GwtEvent<?>) invocation.getArguments()[0]);
+      } catch (UmbrellaException e) {
+        // Surface the handler's own exception if there's only one, as a direct call would
+        if (e.getCauses().size() == 1) {
+          Throwable cause = e.getCause();
+          if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+          } else if (cause instanceof Error) {
+            throw (Error) cause;
+          }
+        }
+        throw e;
+      }
+      return null;
+    }
+  }
+
+  /**
+   * A {@link UiHandler} method bound to one of the fields it names, along with precomputed handles
+   * for reading the field, invoking the method and registering handlers.
+   */
+  private static final class UiHandlerBinding {
+    private static final MethodType HANDLER_TYPE =
+        MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Method method;
+    private final Class<?> eventClass;
+    private final FieldHandle field;
+    private final MethodHandle handlerMethod;
+    private final MethodHandle addHandler;
+    private final Class<?>[] handlerInterfaces;
+    /**
+     * The type of the handled event, or null if the event class doesn't expose one or its handlers
+     * can't be added to a {@link HandlerManager}.
+     */
+    private final GwtEvent.Type<?> eventType;
+
+    UiHandlerBinding(Method method, Field field) {
+      this.method = method;
+      if (method.getParameterTypes().length != 1) {
+        throw new IllegalStateException("@UiHandler method must take one parameter: " + method);
+      }
+      this.eventClass = method.getParameterTypes()[0];
+      Method addMethod = findAddHandlerMethod(field.getType(), eventClass);
+      if (addMethod == null) {
+        throw new IllegalStateException(
+            "No method on " + field.getType().getName() + " accepts handlers for " + method);
+      }
+      Class<?> handlerType = addMethod.getParameterTypes()[0];
+      this.handlerInterfaces = new Class<?>[] {handlerType};
+      this.field = new FieldHandle(field);
+      method.setAccessible(true);
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handlerMethod = lookup.unreflect(method);
+        if (Modifier.isStatic(method.getModifiers())) {
+          handlerMethod = MethodHandles.dropArguments(handlerMethod, 0, Object.class);
+        }
+        this.handlerMethod = handlerMethod.asType(HANDLER_TYPE);
+        this.addHandler = lookup.unreflect(addMethod)
+            .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalStateException("Failed to bind @UiHandler method: " + method, e);
+      }
+      this.eventType = EventHandler.class.isAssignableFrom(handlerType)
+          ? getEventType(eventClass)
+          : null;
+    }
+
+    /** Registers a handler invoking this binding's method on the given owner with a field. */
+    void addTo(Object field, Object owner) {
+      invokeUnchecked(addHandler, field, newHandler(owner));
+    }
+
+    /** Registers a handler invoking this binding's method on the given owner with a manager. */
+    @SuppressWarnings({"rawtypes", "unchecked"}) // the handler implements the event's handler type
+    void addTo(HandlerManager manager, Object owner) {
+      manager.addHandler((GwtEvent.Type) eventType, (EventHandler) newHandler(owner));
+    }
+
+    private Object newHandler(final Object owner) {
+      return Proxy.newProxyInstance(
+          handlerInterfaces[0].getClassLoader(), handlerInterfaces, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method invoked, Object[] args) throws Throwable {
+              if (invoked.getDeclaringClass() == Object.class) {
+                if (invoked.getName().equals("equals")) {
+                  return proxy == args[0];
+                } else if (invoked.getName().equals("hashCode")) {
+                  return System.identityHashCode(proxy);
+                } else {
+                  return "Handler for " + method;
+                }
+              }
+              handlerMethod.invokeExact(owner, args[0]);
+              return null;
+            }
+          });
+    }
+
+    private static void invokeUnchecked(MethodHandle handle, Object receiver, Object argument) {
+      try {
+        Object unused = handle.invokeExact(receiver, argument);
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    /**
+     * Finds a public addXxxHandler method on the given type accepting a handler interface with a
+     * method for the given event class, or null if there is none.
+     */
+    private static Method findAddHandlerMethod(Class<?> type, Class<?> eventClass) {
+      for (Method method : type.getMethods()) {
+        String name = method.getName();
+        if (!name.startsWith("add") || !name.endsWith("Handler")
+            || method.getParameterTypes().length != 1
+            || !method.getParameterTypes()[0].isInterface()) {
+          continue;
+        }
+        for (Method handlerMethod : method.getParameterTypes()[0].getMethods()) {
+          if (handlerMethod.getParameterTypes().length == 1
+              && handlerMethod.getParameterTypes()[0] == eventClass) {
+            return method;
+          }
+        }
+      }
+      return null;
+    }
+
+    /** Returns the type from the event class's static getType method, or null if it has none. */
+    private static GwtEvent.Type<?> getEventType(Class<?> eventClass) {
+      try {
+        Method getType = eventClass.getMethod("getType");
+        if (!Modifier.isStatic(getType.getModifiers())
+            || !GwtEvent.Type.class.isAssignableFrom(getType.getReturnType())) {
+          return null;
+        }
+        return (GwtEvent.Type<?>) getType.invoke(null);
+      } catch (NoSuchMethodException e) {
+        return null;
+      } catch (InvocationTargetException e) {
+        throw new IllegalStateException("Failed to get type of " + eventClass, e.getCause());
+      } catch (IllegalAccessException e) {
+        return null;
+      }
     }
-    return fields;
   }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * A field along with precomputed method handles for reading and assigning it, which are much
+ * cheaper than reflection when the same field is accessed for many objects. Static fields are
+ * supported, in which case the owner passed to {@link #get} and {@link #set} is ignored.
+ * <p>
+ * This class is public so that it can be shared by GwtMockito's packages - users should not
+ * reference it directly.
+ */
+public final class FieldHandle {
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE =
+      MethodType.methodType(void.class, Object.class, Object.class);
+
+  private final Field field;
+  private final MethodHandle getter;
+  /** The setter, or null if the field is final and can't be assigned. */
+  private final MethodHandle setter;
+
+  public FieldHandle(Field field) {
+    this.field = field;
+    field.setAccessible(true);
+    boolean isStatic = Modifier.isStatic(field.getModifiers());
+    MethodHandles.Lookup lookup = MethodHandles.lookup();
+    try {
+      MethodHandle getter = lookup.unreflectGetter(field);
+      if (isStatic) {
+        getter = MethodHandles.dropArguments(getter, 0, Object.class);
+      }
+      this.getter = getter.asType(GETTER_TYPE);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Failed to make field accessible: " + field, e);
+    }
+    MethodHandle setter;
+    try {
+      setter = lookup.unreflectSetter(field);
+      if (isStatic) {
+        setter = MethodHandles.dropArguments(setter, 0, Object.class);
+      }
+      setter = setter.asType(SETTER_TYPE);
+    } catch (IllegalAccessException e) {
+      if (!Modifier.isFinal(field.getModifiers())) {
+        throw new IllegalStateException("Failed to make field accessible: " + field, e);
+      }
+      setter = null;
+    }
+    this.setter = setter;
+  }
+
+  /** Returns the name of the field. */
+  public String getName() {
+    return field.getName();
+  }
+
+  /** Returns the declared type of the field. */
+  public Class<?> getType() {
+    return field.getType();
+  }
+
+  /** Returns the value of the field in the given owner. */
+  public Object get(Object owner) {
+    try {
+      return getter.invokeExact(owner);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new AssertionError("Impossible since field getters don't throw checked exceptions");
+    }
+  }
+
+  /** Assigns the given value to the field in the given owner. */
+  public void set(Object owner, Object value) {
+    if (setter == null) {
+      throw new IllegalStateException("Can't assign final field: " + field);
+    }
+    try {
+      setter.invokeExact(owner, value);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new AssertionError("Impossible since field setters don't throw checked exceptions");
+    }
+  }
+}
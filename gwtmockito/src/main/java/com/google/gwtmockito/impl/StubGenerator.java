@@ -15,15 +15,20 @@
  */
 package com.google.gwtmockito.impl;
 
+import javassist.CtClass;
+import javassist.CtField;
 import javassist.CtMethod;
+import javassist.NotFoundException;
 
 import com.google.gwt.dom.client.AnchorElement;
 import com.google.gwt.dom.client.InputElement;
 import com.google.gwt.dom.client.SelectElement;
 import com.google.gwt.http.client.URL;
+import com.google.gwt.i18n.client.NumberFormat;
 import com.google.gwt.user.client.ui.Anchor;
 import com.google.gwt.user.client.ui.ListBox;
 import com.google.gwt.user.client.ui.TextBox;
+import com.google.gwtmockito.StubReturns;
 
 import org.mockito.Mockito;
 
@@ -34,7 +39,9 @@ import java.util.Map;
 
 /**
  * Generates stub implementations for built-in GWT methods whose behavior we
- * want to replace.
+ * want to replace, as well as for methods registered via {@link StubReturns}.
+ * Where possible, stub behavior is compiled directly into the bodies of the
+ * stubbed methods so that no lookups are needed when they are invoked.
  * <p>
  * This class is public so that it can be referenced by generated code - users
  * should not reference it directly.
@@ -70,13 +77,36 @@ public class StubGenerator {
     STUB_METHODS.put(
       new ClassAndMethod(URL.class, "encodePathSegmentImpl"),
       new ReturnStringStubMethod("encodePathSegmentImpl"));
+    // NumberFormat.toPrecision is implemented with JavaScript's Number.toPrecision, which rounds
+    // half up and may use exponential notation just like BigDecimal
+    STUB_METHODS.put(
+        new ClassAndMethod(NumberFormat.class, "toPrecision"),
+        new BodyStubMethod(
+            "return new java.math.BigDecimal($1).round(new java.math.MathContext($2)).toString();"));
+  }
+
+  private static final Map<String, String> PRIMITIVES_BY_WRAPPER = new HashMap<String, String>();
+  static {
+    PRIMITIVES_BY_WRAPPER.put("java.lang.Byte", "byte");
+    PRIMITIVES_BY_WRAPPER.put("java.lang.Character", "char");
+    PRIMITIVES_BY_WRAPPER.put("java.lang.Double", "double");
+    PRIMITIVES_BY_WRAPPER.put("java.lang.Float", "float");
+    PRIMITIVES_BY_WRAPPER.put("java.lang.Integer", "int");
+    PRIMITIVES_BY_WRAPPER.put("java.lang.Long", "long");
+    PRIMITIVES_BY_WRAPPER.put("java.lang.Short", "short");
   }
 
-  /** Returns whether the behavior of the given method should be replaced. */
-  public static boolean shouldStub(CtMethod method, Collection<Class<?>> classesToStub) {
+  /**
+   * Returns whether the behavior of the given method should be replaced.
+   *
+   * @param method method being loaded
+   * @param classesToStub classes whose non-abstract methods should all be stubbed
+   * @param stubReturns explicitly registered return behaviors for particular methods
+   */
+  public static boolean shouldStub(
+      CtMethod method, Collection<Class<?>> classesToStub, Collection<StubReturns> stubReturns) {
     // Stub any methods for which we have given explicit implementations
-    if (STUB_METHODS.containsKey(new ClassAndMethod(
-        method.getDeclaringClass().getName(), method.getName()))) {
+    if (getExplicitStubMethod(method, stubReturns) != null) {
       return true;
     }
 
@@ -95,35 +125,168 @@ public class StubGenerator {
     return false;
   }
 
-  /** Invokes the stubbed behavior of the given method. */
-  public static Object invoke(Class<?> returnType, String className, String methodName) {
-    // If we have an explicit implementation for this method, invoke it
-    if (STUB_METHODS.containsKey(new ClassAndMethod(className, methodName))) {
-      return STUB_METHODS.get(new ClassAndMethod(className, methodName)).invoke();
+  /**
+   * Returns the source for a body implementing the stubbed behavior of the given method, or null
+   * if the method should simply do nothing and return a default primitive value. Behavior that has
+   * been explicitly registered, either by default or via {@link StubReturns}, takes precedence.
+   * Otherwise, methods returning Strings, boxed primitives, and enums are compiled to return an
+   * empty string, zero, false, or the first enum constant, and other methods return a new mock.
+   */
+  public static String getStubBody(CtMethod method, Collection<StubReturns> stubReturns)
+      throws NotFoundException {
+    StubMethod stubMethod = getExplicitStubMethod(method, stubReturns);
+    if (stubMethod != null) {
+      return stubMethod.getBody(method);
     }
 
-    // Otherwise return an appropriate basic type
-    if (returnType == String.class) {
-      return "";
-    } else if (returnType == Boolean.class) {
-      return false;
-    } else if (returnType == Byte.class) {
-      return (byte) 0;
-    } else if (returnType == Character.class) {
-      return (char) 0;
-    } else if (returnType == Double.class) {
-      return (double) 0;
-    } else if (returnType == Integer.class) {
-      return (int) 0;
-    } else if (returnType == Float.class) {
-      return (float) 0;
-    } else if (returnType == Long.class) {
-      return (long) 0;
-    } else if (returnType == Short.class) {
-      return (short) 0;
+    CtClass returnType = method.getReturnType();
+    if (returnType.isPrimitive()) {
+      return null;
+    } else if (returnType.isEnum()
+        || returnType.getName().equals("java.lang.String")
+        || returnType.getName().equals("java.lang.Boolean")
+        || PRIMITIVES_BY_WRAPPER.containsKey(returnType.getName())) {
+      return "return " + constantExpression(returnType, "") + ";";
+    } else {
+      return String.format(
+          "return (%1$s) com.google.gwtmockito.impl.StubGenerator.invoke("
+              + "Class.forName(\"%1$s\"));",
+          returnType.getName());
+    }
+  }
+
+  /** Returns a new mock to be returned from a stubbed method with the given return type. */
+  public static Object invoke(Class<?> returnType) {
+    return Mockito.mock(returnType, new ReturnsCustomMocks());
+  }
+
+  private static StubMethod getExplicitStubMethod(
+      CtMethod method, Collection<StubReturns> stubReturns) {
+    String className = method.getDeclaringClass().getName();
+    for (StubReturns stub : stubReturns) {
+      if (stub.type().getName().equals(className) && stub.method().equals(method.getName())) {
+        return new StubReturnsStubMethod(stub);
+      }
+    }
+    return STUB_METHODS.get(new ClassAndMethod(className, method.getName()));
+  }
+
+  /**
+   * Returns a source expression evaluating to the given constant, interpreted as a value of the
+   * given type. An empty value stands for the type's default value.
+   */
+  private static String constantExpression(CtClass type, String value) throws NotFoundException {
+    String typeName = type.getName();
+    if (typeName.equals("java.lang.String")) {
+      return quote(value);
+    } else if (type.isEnum()) {
+      return enumConstantExpression(type, value);
+    } else if (type.isPrimitive()) {
+      return primitiveLiteral(typeName, value);
+    } else if (typeName.equals("java.lang.Boolean")) {
+      return primitiveLiteral("boolean", value).equals("true")
+          ? "java.lang.Boolean.TRUE"
+          : "java.lang.Boolean.FALSE";
+    } else if (PRIMITIVES_BY_WRAPPER.containsKey(typeName)) {
+      return String.format("%s.valueOf(%s)",
+          typeName, primitiveLiteral(PRIMITIVES_BY_WRAPPER.get(typeName), value));
+    } else if (value.isEmpty()) {
+      return "null";
+    } else {
+      throw new IllegalArgumentException(
+          "Can't return a constant value for type " + typeName + ": " + value);
+    }
+  }
+
+  private static String primitiveLiteral(String primitiveName, String value) {
+    try {
+      if (primitiveName.equals("boolean")) {
+        if (value.isEmpty()) {
+          return "false";
+        } else if (!value.equals("true") && !value.equals("false")) {
+          throw new IllegalArgumentException("Not a boolean: " + value);
+        }
+        return value;
+      } else if (primitiveName.equals("char")) {
+        if (value.length() > 1) {
+          throw new IllegalArgumentException("Not a single character: " + value);
+        }
+        return "(char) " + (value.isEmpty() ? 0 : (int) value.charAt(0));
+      } else if (primitiveName.equals("byte")) {
+        return "(byte) " + (value.isEmpty() ? 0 : Byte.parseByte(value));
+      } else if (primitiveName.equals("short")) {
+        return "(short) " + (value.isEmpty() ? 0 : Short.parseShort(value));
+      } else if (primitiveName.equals("int")) {
+        return "(int) " + (value.isEmpty() ? 0 : Integer.parseInt(value));
+      } else if (primitiveName.equals("long")) {
+        return "(long) " + (value.isEmpty() ? 0 : Long.parseLong(value)) + "L";
+      } else if (primitiveName.equals("float")) {
+        return "(float) " + floatingLiteral("Float", value.isEmpty() ? 0 : Float.parseFloat(value));
+      } else if (primitiveName.equals("double")) {
+        return "(double) "
+            + floatingLiteral("Double", value.isEmpty() ? 0 : Double.parseDouble(value));
+      } else {
+        throw new IllegalArgumentException("Not a primitive type: " + primitiveName);
+      }
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Not a valid " + primitiveName + ": " + value, e);
+    }
+  }
+
+  private static String floatingLiteral(String wrapperName, double value) {
+    if (Double.isNaN(value)) {
+      return "java.lang." + wrapperName + ".NaN";
+    } else if (value == Double.POSITIVE_INFINITY) {
+      return "java.lang." + wrapperName + ".POSITIVE_INFINITY";
+    } else if (value == Double.NEGATIVE_INFINITY) {
+      return "java.lang." + wrapperName + ".NEGATIVE_INFINITY";
     } else {
-      return Mockito.mock(returnType, new ReturnsCustomMocks());
+      return Double.toString(value);
+    }
+  }
+
+  private static String enumConstantExpression(CtClass enumType, String value) {
+    for (CtField field : enumType.getDeclaredFields()) {
+      if (javassist.Modifier.isEnum(field.getModifiers())
+          && (value.isEmpty() || value.equals(field.getName()))) {
+        return enumType.getName() + "." + field.getName();
+      }
+    }
+    if (value.isEmpty()) {
+      return "null";
     }
+    throw new IllegalArgumentException(enumType.getName() + " has no constant named " + value);
+  }
+
+  /** Quotes the given string as a literal in javassist's dialect of Java. */
+  private static String quote(String value) {
+    StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        quoted.append('\\').append(c);
+      } else if (c == '\n') {
+        quoted.append("\\n");
+      } else if (c == '\r') {
+        quoted.append("\\r");
+      } else if (c == '\t') {
+        quoted.append("\\t");
+      } else if (c == '\f') {
+        quoted.append("\\f");
+      } else if (c < ' ') {
+        throw new IllegalArgumentException("Unsupported control character in " + value);
+      } else {
+        quoted.append(c);
+      }
+    }
+    return quoted.append('"').toString();
+  }
+
+  private static String newMockExpression(String className) {
+    return String.format(
+        "(%1$s) org.mockito.Mockito.mock("
+            + "%1$s.class, new com.google.gwtmockito.impl.ReturnsCustomMocks())",
+        className);
   }
 
   private static boolean declaringClassIs(CtMethod method, Class<?> clazz) {
@@ -137,7 +300,7 @@ public class StubGenerator {
     private final String methodName;
 
     ClassAndMethod(Class<?> clazz, String methodName) {
-      this.className = clazz.getCanonicalName();
+      this.className = clazz.getName();
       this.methodName = methodName;
     }
 
@@ -163,7 +326,8 @@ public class StubGenerator {
 
   /** Fake implementation of a method. */
   private interface StubMethod {
-    Object invoke();
+    /** Returns the source of a body implementing the given method. */
+    String getBody(CtMethod method) throws NotFoundException;
   }
 
   /** A fake method implementation that just returns a new stub for a given class. */
@@ -175,8 +339,8 @@ public class StubGenerator {
     }
 
     @Override
-    public Object invoke() {
-      return Mockito.mock(clazz, new ReturnsCustomMocks());
+    public String getBody(CtMethod method) {
+      return "return " + newMockExpression(clazz.getName()) + ";";
     }
   }
 
@@ -190,8 +354,73 @@ public class StubGenerator {
     }
 
     @Override
-    public Object invoke() {
-      return str;
+    public String getBody(CtMethod method) {
+      return "return " + quote(str) + ";";
+    }
+  }
+
+  /** A fake method implementation given directly as source. */
+  private static class BodyStubMethod implements StubMethod {
+
+    private final String body;
+
+    BodyStubMethod(String body) {
+      this.body = body;
+    }
+
+    @Override
+    public String getBody(CtMethod method) {
+      return body;
+    }
+  }
+
+  /** A fake method implementation described by a {@link StubReturns} annotation. */
+  private static class StubReturnsStubMethod implements StubMethod {
+
+    private final StubReturns stub;
+
+    StubReturnsStubMethod(StubReturns stub) {
+      this.stub = stub;
+    }
+
+    @Override
+    public String getBody(CtMethod method) throws NotFoundException {
+      CtClass returnType = method.getReturnType();
+      if (returnType == CtClass.voidType) {
+        return "{}";
+      }
+      switch (stub.behavior()) {
+        case CONSTANT:
+          return "return " + constantExpression(returnType, stub.value()) + ";";
+        case NEW_INSTANCE:
+          return "return new " + getInstanceType(method).getName() + "();";
+        case THIS:
+          if ((method.getModifiers() & Modifier.STATIC) != 0
+              || !method.getDeclaringClass().subtypeOf(returnType)) {
+            throw new IllegalArgumentException(
+                "Can't return this from " + method.getLongName() + ", which "
+                    + "is either static or doesn't return a supertype of its declaring class");
+          }
+          return "return this;";
+        case MOCK:
+          return "return " + newMockExpression(getInstanceType(method).getName()) + ";";
+        default:
+          throw new AssertionError("Unknown behavior " + stub.behavior());
+      }
+    }
+
+    private CtClass getInstanceType(CtMethod method) throws NotFoundException {
+      CtClass returnType = method.getReturnType();
+      if (stub.instanceType() == Object.class) {
+        return returnType;
+      }
+      CtClass instanceType = method.getDeclaringClass().getClassPool().get(
+          stub.instanceType().getName());
+      if (!instanceType.subtypeOf(returnType)) {
+        throw new IllegalArgumentException("Can't return an instance of "
+            + instanceType.getName() + " from " + method.getLongName());
+      }
+      return instanceType;
     }
   }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics about calls to GWT.create totalled over every test that recorded them, grouped by
+ * the name of the created type. Each test class gets its own copy of GwtMockito and of the types it
+ * creates from GwtMockitoTestRunner, so this class is always loaded by the runner's parent
+ * classloader and only exchanges names and numbers with them.
+ * <p>
+ * This class is public so that it can be shared by every test class's copy of GwtMockito - users
+ * should not reference it directly.
+ */
+public final class SuiteStatistics {
+
+  /** Totals for each created type, keyed by type name. Guarded by SuiteStatistics.class. */
+  private static final Map<String, TypeTotals> TYPE_TOTALS = new HashMap<String, TypeTotals>();
+  private static int testCount;
+  private static long providerCacheHits;
+  private static long providerCacheMisses;
+
+  private SuiteStatistics() {}
+
+  /** Adds the provider cache lookups of a test that has finished recording. */
+  public static synchronized void addTest(int cacheHits, int cacheMisses) {
+    testCount++;
+    providerCacheHits += cacheHits;
+    providerCacheMisses += cacheMisses;
+  }
+
+  /**
+   * Adds the calls to GWT.create for the given type made by a test that has finished recording.
+   *
+   * @param callCounts the number of calls, indexed by the ordinal of their resolution
+   */
+  public static synchronized void addType(String typeName, int[] callCounts, long totalNanos) {
+    TypeTotals totals = TYPE_TOTALS.get(typeName);
+    if (totals == null) {
+      totals = new TypeTotals(typeName, callCounts.length);
+      TYPE_TOTALS.put(typeName, totals);
+    }
+    totals.add(callCounts, totalNanos);
+  }
+
+  /** Returns the number of tests whose statistics have been added. */
+  public static synchronized int getTestCount() {
+    return testCount;
+  }
+
+  /** Returns the total number of calls to GWT.create for the named type in all tests. */
+  public static synchronized long getCallCount(String typeName) {
+    TypeTotals totals = TYPE_TOTALS.get(typeName);
+    return totals != null ? totals.getCallCount() : 0;
+  }
+
+  /**
+   * Returns a report of the statistics added so far, listing the given number of types that were
+   * created most often.
+   *
+   * @param resolutionNames the names of the ways in which calls can be resolved, by ordinal
+   */
+  public static synchronized String getReport(int maxTypes, String[] resolutionNames) {
+    List<TypeTotals> sortedTotals = new ArrayList<TypeTotals>(TYPE_TOTALS.values());
+    Collections.sort(sortedTotals, new Comparator<TypeTotals>() {
+      @Override
+      public int compare(TypeTotals a, TypeTotals b) {
+        return Long.compare(b.getCallCount(), a.getCallCount());
+      }
+    });
+    long callCount = 0;
+    for (TypeTotals totals : sortedTotals) {
+      callCount += totals.getCallCount();
+    }
+    long lookups = providerCacheHits + providerCacheMisses;
+    StringBuilder report = new StringBuilder(String.format(
+        "GwtMockito statistics for %d tests\nProvider cache: %d hits, %d misses (%.1f%% hit rate)",
+        testCount, providerCacheHits, providerCacheMisses,
+        lookups == 0 ? 0 : 100.0 * providerCacheHits / lookups));
+    report.append("\nGWT.create: ").append(callCount).append(" calls");
+    for (TypeTotals totals : sortedTotals.subList(0, Math.min(maxTypes, sortedTotals.size()))) {
+      report.append("\n  ").append(totals.toString(resolutionNames));
+    }
+    if (sortedTotals.size() > maxTypes) {
+      report.append("\n  ...and ").append(sortedTotals.size() - maxTypes).append(" more types");
+    }
+    return report.toString();
+  }
+
+  /** The calls to GWT.create for a single type in all tests. */
+  private static final class TypeTotals {
+    private final String typeName;
+    private final long[] callCounts;
+    private long totalNanos;
+    private int testCount;
+    private int maxCallsPerTest;
+
+    TypeTotals(String typeName, int resolutionCount) {
+      this.typeName = typeName;
+      this.callCounts = new long[resolutionCount];
+    }
+
+    void add(int[] testCallCounts, long testNanos) {
+      int testCalls = 0;
+      for (int i = 0; i < testCallCounts.length; i++) {
+        callCounts[i] += testCallCounts[i];
+        testCalls += testCallCounts[i];
+      }
+      totalNanos += testNanos;
+      testCount++;
+      maxCallsPerTest = Math.max(maxCallsPerTest, testCalls);
+    }
+
+    long getCallCount() {
+      long callCount = 0;
+      for (long count : callCounts) {
+        callCount += count;
+      }
+      return callCount;
+    }
+
+    String toString(String[] resolutionNames) {
+      StringBuilder result = new StringBuilder(typeName)
+          .append(": ")
+          .append(getCallCount())
+          .append(" calls in ")
+          .append(testCount)
+          .append(" tests, at most ")
+          .append(maxCallsPerTest)
+          .append(" in one (");
+      for (int i = 0; i < callCounts.length; i++) {
+        if (i > 0) {
+          result.append(", ");
+        }
+        result.append(resolutionNames[i]).append('=').append(callCounts[i]);
+      }
+      return result.append(String.format(") in %.3fms", totalNanos / 1e6)).toString();
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito.impl;
+
+import com.google.gwt.event.shared.HandlerManager;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * State that the fakes keep for the test running on the current thread. GwtMockito creates a new
+ * context in each call to initMocks and discards it when the test tears down, so that nothing kept
+ * here outlives the test or leaks into the next one, even if mocks are recycled between tests.
+ * <p>
+ * This class is public so that it can be shared by GwtMockito's packages - users should not
+ * reference it directly.
+ */
+public abstract class TestContext {
+
+  /** Finds the context of the test running on the current thread. */
+  public interface Locator {
+    /** Returns the context of the current test, or null if GwtMockito isn't initialized. */
+    TestContext getCurrentContext();
+  }
+
+  private static volatile Locator locator;
+
+  /**
+   * The managers that the fireEvent methods of mocks have been stubbed to dispatch to, keyed by
+   * mock identity. Guarded by itself.
+   */
+  private final Map<Object, HandlerManager> handlerManagers =
+      new IdentityHashMap<Object, HandlerManager>();
+
+  /** Sets the locator used by {@link #current}. Called once by GwtMockito. */
+  public static void setLocator(Locator locator) {
+    TestContext.locator = locator;
+  }
+
+  /**
+   * Returns the context of the test running on the current thread, or null if GwtMockito hasn't
+   * been initialized for it.
+   */
+  public static TestContext current() {
+    Locator locator = TestContext.locator;
+    return locator != null ? locator.getCurrentContext() : null;
+  }
+
+  /**
+   * Returns whether the test has changed what GWT.create returns for the given type from the fake
+   * that GwtMockito's built-in provider for the given base type would create. This happens if the
+   * test declares a {@link com.google.gwtmockito.GwtMock} for the type, or if a provider other
+   * than the built-in one applies to it, whether registered by the test with
+   * {@link com.google.gwtmockito.GwtMockito#useProviderForType} or annotated with
+   * {@link com.google.gwtmockito.fakes.AutoFakeProvider}. Fakes that build objects of the base type
+   * themselves use this to respect such changes.
+   */
+  public abstract boolean hasCustomBinding(Class<?> type, Class<?> baseType);
+
+  /**
+   * Returns the managers that events fired on mocks are dispatched to, keyed by mock identity.
+   * Callers must synchronize on the returned map.
+   */
+  public Map<Object, HandlerManager> getHandlerManagers() {
+    return handlerManagers;
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito.processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * An annotation processor that records the providers annotated with
+ * {@link com.google.gwtmockito.fakes.AutoFakeProvider} in an index, which GwtMockito reads to
+ * register them automatically. The index is a properties file at {@link #INDEX_RESOURCE} mapping
+ * the binary name of each type to the binary name of its provider class.
+ * <p>
+ * This processor is registered as a service, so javac runs it whenever GwtMockito is on the
+ * compile classpath. If an index already exists in the output directory, as happens with
+ * incremental compilation, it is always rewritten. Its entries are preserved only while their
+ * providers still exist and are still annotated with the same type, so that deleting a provider or
+ * its annotation removes it from the index even if no other provider is compiled.
+ */
+@SupportedAnnotationTypes("*")
+public class AutoFakeProviderProcessor extends AbstractProcessor {
+
+  /** The location of the provider index on the classpath. */
+  public static final String INDEX_RESOURCE = "META-INF/gwtmockito/fake-providers.properties";
+
+  static final String AUTO_FAKE_PROVIDER = "com.google.gwtmockito.fakes.AutoFakeProvider";
+  private static final String FAKE_PROVIDER = "com.google.gwtmockito.fakes.FakeProvider";
+
+  private final Map<String, String> providers = new TreeMap<String, String>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+      return false;
+    }
+    TypeElement annotation = processingEnv.getElementUtils().getTypeElement(AUTO_FAKE_PROVIDER);
+    if (annotation == null) {
+      return false;
+    }
+    for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+      if (checkProvider(element)) {
+        String providerName = getBinaryName((TypeElement) element);
+        for (TypeElement type : getProvidedTypes(element)) {
+          String typeName = getBinaryName(type);
+          String existing = providers.put(typeName, providerName);
+          if (existing != null && !existing.equals(providerName)) {
+            error(element, "Both " + existing + " and " + providerName + " provide " + typeName);
+          }
+        }
+      }
+    }
+    // This processor looks at every round, so leave all annotations to other processors
+    return false;
+  }
+
+  /** Checks that GwtMockito can instantiate the given provider, reporting an error otherwise. */
+  private boolean checkProvider(Element element) {
+    if (element.getKind() != ElementKind.CLASS
+        || element.getModifiers().contains(Modifier.ABSTRACT)) {
+      error(element, "@AutoFakeProvider must annotate a concrete class");
+      return false;
+    }
+    for (Element e = element; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+      if (!e.getModifiers().contains(Modifier.PUBLIC)) {
+        error(element, "@AutoFakeProvider classes and the classes enclosing them must be public");
+        return false;
+      }
+    }
+    if (element.getEnclosingElement().getKind() != ElementKind.PACKAGE
+        && !element.getModifiers().contains(Modifier.STATIC)) {
+      error(element, "@AutoFakeProvider classes nested in other classes must be static");
+      return false;
+    }
+    boolean hasPublicConstructor = false;
+    for (ExecutableElement constructor
+        : ElementFilter.constructorsIn(element.getEnclosedElements())) {
+      hasPublicConstructor |= constructor.getParameters().isEmpty()
+          && constructor.getModifiers().contains(Modifier.PUBLIC);
+    }
+    if (!hasPublicConstructor) {
+      error(element, "@AutoFakeProvider classes must have a public no-arg constructor");
+      return false;
+    }
+    TypeMirror fakeProvider = processingEnv.getTypeUtils().erasure(
+        processingEnv.getElementUtils().getTypeElement(FAKE_PROVIDER).asType());
+    if (!processingEnv.getTypeUtils().isAssignable(element.asType(), fakeProvider)) {
+      error(element, "@AutoFakeProvider classes must implement FakeProvider");
+      return false;
+    }
+    return true;
+  }
+
+  /** Returns the types listed in the given element's {@link #AUTO_FAKE_PROVIDER} annotation. */
+  private static TypeElement[] getProvidedTypes(Element element) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      if (!annotationType.getQualifiedName().contentEquals(AUTO_FAKE_PROVIDER)) {
+        continue;
+      }
+      for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+          : annotation.getElementValues().entrySet()) {
+        if (entry.getKey().getSimpleName().contentEquals("value")) {
+          @SuppressWarnings("unchecked") // the value of a Class[] member is a list of classes
+          List<? extends AnnotationValue> values =
+              (List<? extends AnnotationValue>) entry.getValue().getValue();
+          TypeElement[] types = new TypeElement[values.size()];
+          for (int i = 0; i < types.length; i++) {
+            types[i] = (TypeElement) ((DeclaredType) values.get(i).getValue()).asElement();
+          }
+          return types;
+        }
+      }
+    }
+    return new TypeElement[0];
+  }
+
+  private void writeIndex() {
+    Properties index = new Properties();
+    boolean hasExistingIndex;
+    try {
+      FileObject existing = processingEnv.getFiler()
+          .getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      InputStream in = existing.openInputStream();
+      try {
+        index.load(in);
+      } finally {
+        in.close();
+      }
+      hasExistingIndex = true;
+    } catch (IOException e) {
+      // There is no index from an earlier compilation
+      hasExistingIndex = false;
+    }
+    if (!hasExistingIndex && providers.isEmpty()) {
+      return;
+    }
+    for (String typeName : index.stringPropertyNames()) {
+      if (!isStillProvided(typeName, index.getProperty(typeName))) {
+        index.remove(typeName);
+      }
+    }
+    index.putAll(providers);
+
+    try {
+      FileObject file = processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      OutputStream out = file.openOutputStream();
+      try {
+        index.store(out, "Fake providers annotated with @AutoFakeProvider");
+      } finally {
+        out.close();
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(
+          Diagnostic.Kind.ERROR, "Failed to write " + INDEX_RESOURCE + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Returns whether an entry from an earlier compilation is still valid, which is the case if its
+   * provider still exists and is still annotated with its type.
+   */
+  private boolean isStillProvided(String typeName, String providerName) {
+    TypeElement provider =
+        processingEnv.getElementUtils().getTypeElement(providerName.replace('$', '.'));
+    if (provider == null) {
+      return false;
+    }
+    for (TypeElement type : getProvidedTypes(provider)) {
+      if (getBinaryName(type).equals(typeName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private String getBinaryName(TypeElement type) {
+    return processingEnv.getElementUtils().getBinaryName(type).toString();
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito.processor;
+
+import com.google.gwtmockito.fakes.FakeUiBinderProvider;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * An annotation processor that generates a fake implementation of each UiBinder interface it
+ * compiles. {@link FakeUiBinderProvider} uses these generated binders
+ * when they are available instead of creating dynamic proxies that populate fields reflectively.
+ * Generated binders populate the same fields in the same way, but do so with plain field
+ * assignments, which makes binding views much cheaper in test suites that bind many of them.
+ * UiHandler methods are registered in the same way as by the reflective fake.
+ * <p>
+ * Generated binders are placed in the same package as their interface and call into
+ * {@link FakeUiBinderProvider}, so they can only be compiled alongside tests. The processor is not
+ * registered as a service, so it never runs unless it is explicitly enabled when compiling tests,
+ * for example by listing it in the annotationProcessors configuration of the testCompile execution
+ * of maven-compiler-plugin. It reports an error if GwtMockito isn't on the classpath, which is the
+ * case when it is accidentally enabled for production code.
+ * <p>
+ * Binders declared in test sources are generated automatically. Binders declared in production
+ * sources are already compiled by the time tests are, so they must be listed by their canonical
+ * names in the {@value #UI_BINDERS_OPTION} option, separated by commas, for example
+ * {@code -Agwtmockito.uiBinders=com.example.MyWidget.MyUiBinder}. Binders that aren't generated
+ * are still faked reflectively.
+ * <p>
+ * A binder can't be generated if its interface, owner or UI root type, or any field it needs to
+ * populate, isn't accessible from the binder's package - for example, if it is private. Such
+ * binders are skipped with a note and continue to be faked with proxies.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(FakeUiBinderProcessor.UI_BINDERS_OPTION)
+public class FakeUiBinderProcessor extends AbstractProcessor {
+
+  /** Option listing binders from the classpath to generate in addition to those being compiled. */
+  public static final String UI_BINDERS_OPTION = "gwtmockito.uiBinders";
+
+  private static final String UI_BINDER = "com.google.gwt.uibinder.client.UiBinder";
+  private static final String UI_FIELD = "com.google.gwt.uibinder.client.UiField";
+  private static final String UI_HANDLER = "com.google.gwt.uibinder.client.UiHandler";
+
+  private final Set<String> generatedBinders = new HashSet<String>();
+  private boolean firstRound = true;
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    TypeElement uiBinder = processingEnv.getElementUtils().getTypeElement(UI_BINDER);
+    if (uiBinder == null) {
+      return false;
+    }
+    if (firstRound) {
+      firstRound = false;
+      if (processingEnv.getElementUtils().getTypeElement(
+          FakeUiBinderProvider.class.getCanonicalName()) == null) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            "FakeUiBinderProcessor must only be enabled when compiling tests, since the binders "
+                + "it generates require GwtMockito on the classpath");
+        return false;
+      }
+      processListedBinders(uiBinder);
+    }
+    for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+      processType(type, uiBinder);
+    }
+    // Other processors may also be interested in the types we looked at
+    return false;
+  }
+
+  /** Processes the already compiled binders listed in {@link #UI_BINDERS_OPTION}. */
+  private void processListedBinders(TypeElement uiBinder) {
+    String binders = processingEnv.getOptions().get(UI_BINDERS_OPTION);
+    if (binders == null) {
+      return;
+    }
+    for (String name : binders.split(",")) {
+      name = name.trim();
+      if (name.isEmpty()) {
+        continue;
+      }
+      TypeElement binder = processingEnv.getElementUtils().getTypeElement(name);
+      if (binder == null || binder.getKind() != ElementKind.INTERFACE
+          || !processingEnv.getTypeUtils().isAssignable(
+              processingEnv.getTypeUtils().erasure(binder.asType()),
+              processingEnv.getTypeUtils().erasure(uiBinder.asType()))) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+            "No UiBinder interface named " + name + " as listed in " + UI_BINDERS_OPTION);
+        continue;
+      }
+      processType(binder, uiBinder);
+    }
+  }
+
+  private void processType(TypeElement type, TypeElement uiBinder) {
+    if (type.getKind() == ElementKind.INTERFACE) {
+      for (TypeMirror superinterface : type.getInterfaces()) {
+        DeclaredType declaredSuperinterface = (DeclaredType) superinterface;
+        if (declaredSuperinterface.asElement().equals(uiBinder)) {
+          processBinder(type, declaredSuperinterface);
+        }
+      }
+    }
+    for (TypeElement nestedType : ElementFilter.typesIn(type.getEnclosedElements())) {
+      processType(nestedType, uiBinder);
+    }
+  }
+
+  private void processBinder(TypeElement binder, DeclaredType uiBinderType) {
+    String binaryName = processingEnv.getElementUtils().getBinaryName(binder).toString();
+    if (!generatedBinders.add(binaryName)) {
+      return;
+    }
+    PackageElement pkg = processingEnv.getElementUtils().getPackageOf(binder);
+    List<? extends TypeMirror> typeArguments = uiBinderType.getTypeArguments();
+    if (!binder.getTypeParameters().isEmpty()
+        || typeArguments.size() != 2
+        || typeArguments.get(0).getKind() != TypeKind.DECLARED
+        || typeArguments.get(1).getKind() != TypeKind.DECLARED) {
+      skip(binder, "its type arguments aren't concrete types");
+      return;
+    }
+    DeclaredType rootType = (DeclaredType) typeArguments.get(0);
+    DeclaredType ownerType = (DeclaredType) typeArguments.get(1);
+    TypeElement owner = (TypeElement) ownerType.asElement();
+    if (!isAccessible(binder, pkg)
+        || !isAccessible(rootType.asElement(), pkg)
+        || !isAccessible(owner, pkg)) {
+      skip(binder, "its interface, owner or UI root type isn't accessible from its package");
+      return;
+    }
+
+    // Collect the fields to populate in the same order as the reflective fake
+    List<String> assignments = new ArrayList<String>();
+    boolean hasUiHandlers = false;
+    for (TypeElement type = owner; type != null; type = getSuperclass(type)) {
+      for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+        hasUiHandlers |= hasAnnotation(method, UI_HANDLER);
+      }
+      for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+        if (!isPopulatedUiField(field)) {
+          continue;
+        }
+        if (field.getModifiers().contains(Modifier.FINAL) || !isAccessible(field, pkg)
+            || (type != owner && !isAccessible(type, pkg))) {
+          skip(binder, "field " + type.getSimpleName() + "." + field.getSimpleName()
+              + " can't be assigned from its package");
+          return;
+        }
+        String target = type == owner
+            ? "owner"
+            : "((" + erasure(type.asType()) + ") owner)";
+        assignments.add(target + "." + field.getSimpleName() + " = "
+            + "com.google.gwt.core.client.GWT.create(" + erasure(field.asType()) + ".class);");
+      }
+    }
+
+    String simpleName = binaryName
+        .substring(pkg.isUnnamed() ? 0 : pkg.getQualifiedName().length() + 1)
+        .replace('$', '_') + FakeUiBinderProvider.GENERATED_BINDER_SUFFIX;
+    String ownerClass = erasure(ownerType);
+    StringBuilder source = new StringBuilder();
+    if (!pkg.isUnnamed()) {
+      source.append("package ").append(pkg.getQualifiedName()).append(";\n\n");
+    }
+    source
+        .append("/** Fake implementation of {@link ").append(binder.getQualifiedName())
+        .append("} generated by GwtMockito. */\n")
+        .append("@SuppressWarnings({\"rawtypes\", \"unchecked\"})\n")
+        .append("final class ").append(simpleName)
+        .append(" implements ").append(binder.getQualifiedName()).append(" {\n")
+        .append("  @Override\n")
+        .append("  public ").append(rootType).append(" createAndBindUi(")
+        .append(ownerType).append(" owner) {\n")
+        .append("    if (owner.getClass() != ").append(ownerClass).append(".class) {\n")
+        .append("      // Subclasses may declare fields of their own, so bind them reflectively\n")
+        .append("      return com.google.gwtmockito.fakes.FakeUiBinderProvider.createAndBindUi(")
+        .append(binder.getQualifiedName()).append(".class, owner);\n")
+        .append("    }\n");
+    for (String assignment : assignments) {
+      source.append("    ").append(assignment).append("\n");
+    }
+    if (hasUiHandlers) {
+      source.append(
+          "    com.google.gwtmockito.fakes.FakeUiBinderProvider.bindUiHandlers(owner);\n");
+    }
+    source
+        .append("    return com.google.gwt.core.client.GWT.create(")
+        .append(erasure(rootType)).append(".class);\n")
+        .append("  }\n")
+        .append("}\n");
+
+    String qualifiedName = pkg.isUnnamed()
+        ? simpleName
+        : pkg.getQualifiedName() + "." + simpleName;
+    try {
+      Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, binder).openWriter();
+      try {
+        writer.write(source.toString());
+      } finally {
+        writer.close();
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(
+          Diagnostic.Kind.ERROR, "Failed to write fake binder: " + e.getMessage(), binder);
+    }
+  }
+
+  private static boolean hasAnnotation(Element element, String annotationName) {
+    for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns whether the given field is a UiField that isn't provided by its owner. */
+  private static boolean isPopulatedUiField(VariableElement field) {
+    for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+      if (annotationType.getQualifiedName().contentEquals(UI_FIELD)) {
+        for (ExecutableElement key : annotation.getElementValues().keySet()) {
+          if (key.getSimpleName().contentEquals("provided")) {
+            AnnotationValue provided = annotation.getElementValues().get(key);
+            return !Boolean.TRUE.equals(provided.getValue());
+          }
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns whether the given element can be referred to from a class in the given package. */
+  private boolean isAccessible(Element element, PackageElement pkg) {
+    for (Element e = element; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+      Set<Modifier> modifiers = e.getModifiers();
+      if (modifiers.contains(Modifier.PRIVATE)) {
+        return false;
+      }
+      if (!modifiers.contains(Modifier.PUBLIC)
+          && !processingEnv.getElementUtils().getPackageOf(e).equals(pkg)) {
+        return false;
+      }
+      if (e.getKind().isClass() || e.getKind().isInterface()) {
+        // Local and anonymous classes can't be referred to at all
+        Element enclosing = e.getEnclosingElement();
+        if (enclosing.getKind() != ElementKind.PACKAGE
+            && !enclosing.getKind().isClass() && !enclosing.getKind().isInterface()) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static TypeElement getSuperclass(TypeElement type) {
+    TypeMirror superclass = type.getSuperclass();
+    if (superclass.getKind() != TypeKind.DECLARED) {
+      return null;
+    }
+    TypeElement superclassElement = (TypeElement) ((DeclaredType) superclass).asElement();
+    return superclassElement.getQualifiedName().contentEquals("java.lang.Object")
+        ? null
+        : superclassElement;
+  }
+
+  private String erasure(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type).toString();
+  }
+
+  private void skip(TypeElement binder, String reason) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+        "Not generating a fake for " + binder.getQualifiedName() + " since " + reason, binder);
+  }
+}
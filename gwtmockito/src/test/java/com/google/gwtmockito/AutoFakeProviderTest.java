@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwtmockito.fakes.AutoFakeProvider;
+import com.google.gwtmockito.fakes.FakeProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests for {@link AutoFakeProvider}, whose index is generated when this module's tests are
+ * compiled.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+public class AutoFakeProviderTest {
+
+  @Test
+  public void shouldUseAnnotatedProviderWithoutRegistration() {
+    SampleService service = GWT.create(SampleService.class);
+    assertEquals("auto", service.getName());
+  }
+
+  @Test
+  public void shouldUseAnnotatedProviderForSubtypes() {
+    SampleSubService service = GWT.create(SampleSubService.class);
+    assertEquals("auto", service.getName());
+  }
+
+  @Test
+  public void shouldPreferExplicitlyRegisteredProviders() {
+    GwtMockito.useProviderForType(SampleService.class, new FakeProvider<SampleService>() {
+      @Override
+      public SampleService getFake(Class<?> type) {
+        return new SampleService() {
+          @Override
+          public String getName() {
+            return "explicit";
+          }
+        };
+      }
+    });
+
+    SampleService service = GWT.create(SampleService.class);
+    assertEquals("explicit", service.getName());
+  }
+
+  /** A type with a provider registered by annotation. */
+  public interface SampleService {
+    String getName();
+  }
+
+  public interface SampleSubService extends SampleService {}
+
+  /**
+   * Provider registered for {@link SampleService} via the generated index. It returns a
+   * {@link SampleSubService} so that it can be used for both types.
+   */
+  @AutoFakeProvider(SampleService.class)
+  public static class SampleServiceProvider implements FakeProvider<SampleService> {
+    @Override
+    public SampleService getFake(Class<?> type) {
+      return new SampleSubService() {
+        @Override
+        public String getName() {
+          return "auto";
+        }
+      };
+    }
+  }
+}
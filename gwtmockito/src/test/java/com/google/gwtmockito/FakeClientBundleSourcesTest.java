@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.resources.client.ClientBundle;
+import com.google.gwt.resources.client.DataResource;
+import com.google.gwt.resources.client.ExternalTextResource;
+import com.google.gwt.resources.client.ResourceCallback;
+import com.google.gwt.resources.client.ResourceException;
+import com.google.gwt.resources.client.TextResource;
+import com.google.gwtmockito.fakes.FakeClientBundleProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests for {@link FakeClientBundleProvider} when it reads resources from their source files.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+public class FakeClientBundleSourcesTest {
+
+  @Before
+  public void setUp() {
+    GwtMockito.useProviderForType(ClientBundle.class, new FakeClientBundleProvider(true));
+  }
+
+  @Test
+  public void shouldReadTextResourcesFromSources() {
+    SampleBundle bundle = GWT.create(SampleBundle.class);
+
+    assertEquals("{\"greeting\": \"hello\"}\n", bundle.relative().getText());
+    assertEquals("line 1\nline 2\n", bundle.absolute().getText());
+    assertEquals("relative", bundle.relative().getName());
+  }
+
+  @Test
+  public void shouldShareSourcesBetweenResources() {
+    SampleBundle bundle = GWT.create(SampleBundle.class);
+
+    assertSame(bundle.absolute().getText(), bundle.sameFile().getText());
+  }
+
+  @Test
+  public void shouldReadExternalTextResourcesFromSources() throws Exception {
+    SampleBundle bundle = GWT.create(SampleBundle.class);
+
+    final StringBuilder result = new StringBuilder();
+    bundle.external().getText(new ResourceCallback<TextResource>() {
+      @Override
+      public void onSuccess(TextResource resource) {
+        result.append(resource.getText());
+      }
+      @Override
+      public void onError(ResourceException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    assertEquals("line 1\nline 2\n", result.toString());
+  }
+
+  @Test
+  public void shouldReturnDataUrisForDataResources() {
+    SampleBundle bundle = GWT.create(SampleBundle.class);
+
+    assertEquals("data:text/plain;base64,bGluZSAxCmxpbmUgMgo=",
+        bundle.data().getSafeUri().asString());
+    assertEquals(bundle.data().getSafeUri().asString(), bundle.data().getUrl());
+  }
+
+  @Test
+  public void shouldUseMimeTypeOfEachResourceSharingSource() {
+    SampleBundle bundle = GWT.create(SampleBundle.class);
+
+    assertEquals("data:text/plain;base64,bGluZSAxCmxpbmUgMgo=",
+        bundle.data().getSafeUri().asString());
+    assertEquals("data:application/octet-stream;base64,bGluZSAxCmxpbmUgMgo=",
+        bundle.binaryData().getSafeUri().asString());
+  }
+
+  @Test
+  public void shouldReturnNamesForResourcesWithoutSources() {
+    SampleBundle bundle = GWT.create(SampleBundle.class);
+
+    assertEquals("withoutSource", bundle.withoutSource().getText());
+  }
+
+  @Test
+  public void shouldFailForMissingSources() {
+    SampleBundle bundle = GWT.create(SampleBundle.class);
+    try {
+      bundle.missing();
+      fail("Exception not thrown");
+    } catch (IllegalArgumentException expected) {}
+  }
+
+  interface SampleBundle extends ClientBundle {
+    @Source("sample.json")
+    TextResource relative();
+
+    @Source("com/google/gwtmockito/sample.txt")
+    TextResource absolute();
+
+    @Source({"doesNotExist.txt", "sample.txt"})
+    TextResource sameFile();
+
+    @Source("sample.txt")
+    ExternalTextResource external();
+
+    @Source("sample.txt")
+    @DataResource.MimeType("text/plain")
+    DataResource data();
+
+    @Source("sample.txt")
+    @DataResource.MimeType("application/octet-stream")
+    DataResource binaryData();
+
+    TextResource withoutSource();
+
+    @Source("doesNotExist.txt")
+    TextResource missing();
+  }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.resources.client.ClientBundle;
+import com.google.gwt.resources.client.CssResource;
+import com.google.gwtmockito.fakes.AutoFakeProvider;
+import com.google.gwtmockito.fakes.FakeClientBundleProvider;
+import com.google.gwtmockito.fakes.FakeCssResourceProvider;
+import com.google.gwtmockito.fakes.FakeProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests for {@link FakeCssResourceProvider}.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+public class FakeCssResourceProviderTest {
+
+  @Test
+  public void shouldReturnClassNamesFromStylesheet() {
+    GwtMockito.useProviderForType(ClientBundle.class, new FakeClientBundleProvider(true));
+    SampleCss css = GWT.<SampleBundle>create(SampleBundle.class).css();
+
+    assertEquals("header", css.header());
+    assertEquals("header-print", css.headerPrint());
+    assertEquals("link", css.link());
+    assertEquals("gwt-Button", css.button());
+    assertEquals("css", css.getName());
+    assertTrue(css.ensureInjected());
+  }
+
+  @Test
+  public void shouldReturnDefinitions() {
+    GwtMockito.useProviderForType(ClientBundle.class, new FakeClientBundleProvider(true));
+    SampleCss css = GWT.<SampleBundle>create(SampleBundle.class).css();
+
+    assertEquals("12px", css.gutter());
+    assertEquals(3, css.columns());
+  }
+
+  @Test
+  public void shouldPrefixClassNamesExceptExternalOnes() {
+    GwtMockito.useProviderForType(ClientBundle.class,
+        new FakeClientBundleProvider(new FakeCssResourceProvider("x-")));
+    SampleCss css = GWT.<SampleBundle>create(SampleBundle.class).css();
+
+    assertEquals("x-header", css.header());
+    assertEquals("x-title", css.title());
+    assertEquals("gwt-Button", css.button());
+    assertEquals("legacy", css.legacy());
+    assertEquals("x-undeclared", css.undeclared());
+  }
+
+  @Test
+  public void shouldRenameClassSelectorsInText() {
+    GwtMockito.useProviderForType(ClientBundle.class,
+        new FakeClientBundleProvider(new FakeCssResourceProvider("x-")));
+    String text = GWT.<SampleBundle>create(SampleBundle.class).css().getText();
+
+    assertTrue(text, text.startsWith("@external gwt-*, legacy;"));
+    assertTrue(text, text.contains(".x-header, .x-header .x-title {"));
+    assertTrue(text, text.contains("url(\"images/.hidden.png\")"));
+    assertTrue(text, text.contains("margin: 0.5em;"));
+    assertTrue(text, text.contains(".x-header-print a.x-link {"));
+    assertTrue(text, text.contains(".gwt-Button.legacy {"));
+    assertTrue(text, !text.contains("commented"));
+  }
+
+  @Test
+  public void shouldFindStylesheetNamedAfterMethod() {
+    GwtMockito.useProviderForType(ClientBundle.class, new FakeClientBundleProvider(true));
+    SampleCss css = GWT.<SampleBundle>create(SampleBundle.class).sample();
+
+    assertEquals("header", css.header());
+    assertTrue(css.getText().contains(".header"));
+  }
+
+  @Test
+  public void shouldReturnSameResourceFromBundle() {
+    GwtMockito.useProviderForType(ClientBundle.class, new FakeClientBundleProvider(true));
+    SampleBundle bundle = GWT.create(SampleBundle.class);
+
+    assertSame(bundle.css(), bundle.css());
+  }
+
+  @Test
+  public void shouldPreferGwtMocksToStylesheet() {
+    class Mocks {
+      @GwtMock SampleCss css;
+    }
+    Mocks mocks = new Mocks();
+    GwtMockito.initMocks(mocks);
+    GwtMockito.useProviderForType(ClientBundle.class, new FakeClientBundleProvider(true));
+
+    assertSame(mocks.css, GWT.<SampleBundle>create(SampleBundle.class).css());
+  }
+
+  @Test
+  public void shouldPreferRegisteredProvidersToStylesheet() {
+    GwtMockito.useProviderForType(ClientBundle.class, new FakeClientBundleProvider(true));
+    GwtMockito.useProviderForType(SampleCss.class, new FakeCssResourceProvider("x-"));
+    SampleCss css = GWT.<SampleBundle>create(SampleBundle.class).css();
+
+    assertEquals("x-header", css.header());
+    assertEquals("", css.getText());
+  }
+
+  @Test
+  public void shouldPreferAnnotatedProvidersToStylesheet() {
+    GwtMockito.useProviderForType(ClientBundle.class, new FakeClientBundleProvider(true));
+    AnnotatedCss css = GWT.<SampleBundle>create(SampleBundle.class).annotated();
+
+    assertEquals("auto-header", css.header());
+  }
+
+  @Test
+  public void shouldDeriveClassNamesWithoutStylesheet() {
+    GwtMockito.useProviderForType(CssResource.class, new FakeCssResourceProvider("x-"));
+    SampleCss css = GWT.create(SampleCss.class);
+
+    assertEquals("x-header", css.header());
+    assertEquals("x-header-print", css.headerPrint());
+    assertEquals("", css.getText());
+  }
+
+  interface SampleBundle extends ClientBundle {
+    @Source("sample.css")
+    SampleCss css();
+
+    SampleCss sample();
+
+    @Source("sample.css")
+    AnnotatedCss annotated();
+  }
+
+  interface AnnotatedCss extends CssResource {
+    String header();
+  }
+
+  /** Provider registered for {@link AnnotatedCss} via the generated index. */
+  @AutoFakeProvider(AnnotatedCss.class)
+  public static class AnnotatedCssProvider implements FakeProvider<AnnotatedCss> {
+    @Override
+    public AnnotatedCss getFake(Class<?> type) {
+      return (AnnotatedCss) new FakeCssResourceProvider("auto-").getFake(type);
+    }
+  }
+
+  interface SampleCss extends CssResource {
+    String header();
+
+    String title();
+
+    @ClassName("header-print")
+    String headerPrint();
+
+    String link();
+
+    @ClassName("gwt-Button")
+    String button();
+
+    String legacy();
+
+    String undeclared();
+
+    String gutter();
+
+    int columns();
+  }
+}
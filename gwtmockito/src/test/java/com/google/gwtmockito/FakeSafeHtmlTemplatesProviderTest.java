@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.safecss.shared.SafeStyles;
+import com.google.gwt.safecss.shared.SafeStylesUtils;
+import com.google.gwt.safehtml.client.SafeHtmlTemplates;
+import com.google.gwt.safehtml.shared.SafeHtml;
+import com.google.gwt.safehtml.shared.SafeHtmlUtils;
+import com.google.gwt.safehtml.shared.SafeUri;
+import com.google.gwt.safehtml.shared.UriUtils;
+import com.google.gwtmockito.fakes.FakeSafeHtmlTemplatesProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests for {@link FakeSafeHtmlTemplatesProvider}.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+public class FakeSafeHtmlTemplatesProviderTest {
+
+  private SampleTemplates templates;
+
+  @Before
+  public void setUp() {
+    GwtMockito.useProviderForType(SafeHtmlTemplates.class, new FakeSafeHtmlTemplatesProvider());
+    templates = GWT.create(SampleTemplates.class);
+  }
+
+  @Test
+  public void shouldRenderTemplates() {
+    assertEquals("<div class=\"name\">content</div>",
+        templates.div("name", SafeHtmlUtils.fromTrustedString("content")).asString());
+    assertEquals("<span>1 of 2</span>", templates.count(1, 2).asString());
+  }
+
+  @Test
+  public void shouldEscapeArguments() {
+    assertEquals("<div class=\"&quot;&gt;\">&lt;b&gt;</div>",
+        templates.div("\">", SafeHtmlUtils.fromSafeConstant("&lt;b&gt;")).asString());
+    assertEquals("<span>&lt;i&gt; of &amp;</span>", templates.text("<i>", "&").asString());
+  }
+
+  @Test
+  public void shouldInsertSafeHtmlOnlyBetweenTags() {
+    SafeHtml html = SafeHtmlUtils.fromTrustedString("<b>bold</b>");
+    assertEquals("<div class=\"&lt;b&gt;bold&lt;/b&gt;\"><b>bold</b></div>",
+        templates.div(html.asString(), html).asString());
+  }
+
+  @Test
+  public void shouldSanitizeUrls() {
+    assertEquals("<a href=\"http://example.com/?a=1&amp;b=2\">link</a>",
+        templates.link("http://example.com/?a=1&b=2", "link").asString());
+    assertEquals("<a href=\"#\">link</a>",
+        templates.link("javascript:alert(1)", "link").asString());
+  }
+
+  @Test
+  public void shouldInsertSafeUrisAndStyles() {
+    SafeUri uri = UriUtils.fromTrustedString("javascript:void(0)");
+    SafeStyles styles = SafeStylesUtils.fromTrustedString("color: red;");
+    assertEquals("<img src=\"javascript:void(0)\" style=\"color: red;\">",
+        templates.image(uri, styles).asString());
+  }
+
+  @Test
+  public void shouldRepeatAndReorderArguments() {
+    assertEquals("<p title='b'>a b a</p>", templates.reordered("a", "b").asString());
+  }
+
+  @Test
+  public void shouldRejectMethodsWithoutTemplates() {
+    try {
+      templates.withoutTemplate();
+      fail("Exception not thrown");
+    } catch (UnsupportedOperationException expected) {}
+  }
+
+  @Test
+  public void shouldCompareFakesByIdentity() {
+    SampleTemplates other = GWT.create(SampleTemplates.class);
+
+    assertTrue(templates.equals(templates));
+    assertFalse(templates.equals(other));
+    assertFalse(templates.equals(null));
+    assertEquals(System.identityHashCode(templates), templates.hashCode());
+  }
+
+  interface SampleTemplates extends SafeHtmlTemplates {
+    @Template("<div class=\"{0}\">{1}</div>")
+    SafeHtml div(String className, SafeHtml content);
+
+    @Template("<span>{0} of {1}</span>")
+    SafeHtml count(int index, int total);
+
+    @Template("<span>{0} of {1}</span>")
+    SafeHtml text(String first, String second);
+
+    @Template("<a href=\"{0}\">{1}</a>")
+    SafeHtml link(String url, String text);
+
+    @Template("<img src=\"{0}\" style=\"{1}\">")
+    SafeHtml image(SafeUri uri, SafeStyles styles);
+
+    @Template("<p title='{1}'>{0} {1} {0}</p>")
+    SafeHtml reordered(String first, String second);
+
+    SafeHtml withoutTemplate();
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.verify;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.uibinder.client.UiBinder;
+import com.google.gwt.uibinder.client.UiField;
+import com.google.gwt.uibinder.client.UiHandler;
+import com.google.gwt.user.client.ui.Composite;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.Widget;
+import com.google.gwtmockito.processor.FakeUiBinderProcessor;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Proxy;
+
+/**
+ * Tests for the binders generated by {@link FakeUiBinderProcessor}, which runs when this module's
+ * tests are compiled.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+public class FakeUiBinderProcessorTest {
+
+  @Test
+  public void shouldUseGeneratedBinder() {
+    SampleBinder binder = GWT.create(SampleBinder.class);
+
+    assertFalse(Proxy.isProxyClass(binder.getClass()));
+    assertEquals(
+        "FakeUiBinderProcessorTest_SampleBinder_GwtMockitoFake",
+        binder.getClass().getSimpleName());
+  }
+
+  @Test
+  public void shouldPopulateFieldsWithGeneratedBinder() {
+    SampleWidget widget = new SampleWidget();
+
+    assertNotNull(widget.label);
+    assertNotNull(widget.baseLabel);
+    assertNull(widget.providedLabel);
+    widget.setText("text");
+    verify(widget.label).setText("text");
+  }
+
+  @Test
+  public void shouldBindUiHandlersWithGeneratedBinder() {
+    SampleWidget widget = new SampleWidget();
+
+    widget.label.fireEvent(new ClickEvent() {});
+
+    assertEquals(1, widget.clicks);
+  }
+
+  @Test
+  public void shouldFallBackToReflectionForSubclassedOwners() {
+    final Label[] extraLabel = new Label[1];
+    SampleWidget widget = new SampleWidget() {
+      @UiField Label extra;
+
+      @Override
+      void setText(String text) {
+        extraLabel[0] = extra;
+      }
+    };
+    widget.setText("text");
+
+    assertNotNull(widget.label);
+    assertNotNull(extraLabel[0]);
+  }
+
+  @Test
+  public void shouldCreateRootWithGeneratedBinder() {
+    SampleBinder binder = GWT.create(SampleBinder.class);
+    SampleWidget owner = new SampleWidget();
+    Label oldLabel = owner.label;
+
+    Widget root = binder.createAndBindUi(owner);
+
+    assertNotNull(root);
+    assertNotSame(oldLabel, owner.label);
+  }
+
+  interface SampleBinder extends UiBinder<Widget, SampleWidget> {}
+
+  static class BaseWidget extends Composite {
+    @UiField Label baseLabel;
+  }
+
+  static class SampleWidget extends BaseWidget {
+    @UiField Label label;
+    @UiField(provided = true) Label providedLabel;
+    int clicks;
+
+    SampleWidget() {
+      SampleBinder binder = GWT.create(SampleBinder.class);
+      initWidget(binder.createAndBindUi(this));
+    }
+
+    void setText(String text) {
+      label.setText(text);
+    }
+
+    @UiHandler("label")
+    void onLabelClicked(ClickEvent event) {
+      clicks++;
+    }
+  }
+}
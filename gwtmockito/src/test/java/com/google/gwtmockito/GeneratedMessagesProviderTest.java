@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.i18n.client.Messages;
+import com.google.gwt.resources.client.CssResource;
+import com.google.gwt.safehtml.shared.SafeHtml;
+import com.google.gwt.safehtml.shared.SafeHtmlUtils;
+import com.google.gwt.safehtml.shared.SafeUri;
+import com.google.gwt.safehtml.shared.UriUtils;
+import com.google.gwtmockito.fakes.FakeMessagesProvider;
+import com.google.gwtmockito.fakes.GeneratedMessagesProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests for {@link GeneratedMessagesProvider}.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+public class GeneratedMessagesProviderTest {
+
+  @Before
+  public void setUp() {
+    GwtMockito.useProviderForType(Messages.class, new GeneratedMessagesProvider<Messages>());
+    GwtMockito.useProviderForType(
+        CssResource.class, new GeneratedMessagesProvider<CssResource>());
+  }
+
+  @Test
+  public void shouldGenerateClassesInsteadOfProxies() {
+    SampleMessages messages = GWT.create(SampleMessages.class);
+    SampleMessages otherMessages = GWT.create(SampleMessages.class);
+
+    assertTrue(messages.getClass().getName().startsWith(SampleMessages.class.getName()));
+    assertSame(SampleMessages.class.getClassLoader(), messages.getClass().getClassLoader());
+    assertSame(messages.getClass(), otherMessages.getClass());
+    assertNotSame(messages, otherMessages);
+  }
+
+  @Test
+  public void shouldBuildSameMessagesAsProxies() {
+    SampleMessages generated = GWT.create(SampleMessages.class);
+    SampleMessages proxy = new FakeMessagesProvider<SampleMessages>().getFake(SampleMessages.class);
+    SafeHtml html = SafeHtmlUtils.fromTrustedString("argX");
+    SafeUri uri = UriUtils.fromSafeConstant("http://uriY");
+
+    assertEquals("noArgs", generated.noArgs());
+    assertEquals(proxy.noArgs(), generated.noArgs());
+    assertEquals("twoArgs(onearg, null)", generated.twoArgs("onearg", null));
+    assertEquals(proxy.twoArgs("onearg", null), generated.twoArgs("onearg", null));
+    assertEquals(proxy.primitives(1, 'c', true, 2.5), generated.primitives(1, 'c', true, 2.5));
+    assertEquals("safeHtmlWithUri(argX, http://uriY)",
+        generated.safeHtmlWithUri(html, uri).asString());
+    assertEquals(proxy.safeHtmlWithUri(html, uri), generated.safeHtmlWithUri(html, uri));
+    assertEquals("inherited", generated.inherited());
+  }
+
+  @Test
+  public void shouldImplementObjectMethodsLikeProxies() {
+    SampleMessages messages = GWT.create(SampleMessages.class);
+
+    assertEquals(messages, GWT.create(SampleMessages.class));
+    assertEquals(messages.hashCode(), GWT.create(SampleMessages.class).hashCode());
+    assertEquals("toString", messages.toString());
+  }
+
+  @Test
+  public void shouldRejectUnsupportedReturnTypes() {
+    SampleMessages messages = GWT.create(SampleMessages.class);
+    try {
+      messages.unsupported();
+      fail("Exception not thrown");
+    } catch (IllegalArgumentException expected) {}
+  }
+
+  @Test
+  public void shouldCreateFakeCssResources() {
+    SampleCss css = GWT.create(SampleCss.class);
+
+    assertTrue(css.ensureInjected());
+    assertEquals("style", css.style());
+  }
+
+  interface BaseMessages extends Messages {
+    String inherited();
+  }
+
+  interface SampleMessages extends BaseMessages {
+    String noArgs();
+    String twoArgs(String arg1, String arg2);
+    String primitives(int i, char c, boolean b, double d);
+    SafeHtml safeHtmlWithUri(SafeHtml arg1, SafeUri arg2);
+    int unsupported();
+  }
+
+  interface SampleCss extends CssResource {
+    String style();
+  }
+}
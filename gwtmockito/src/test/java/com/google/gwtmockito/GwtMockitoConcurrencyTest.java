@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwtmockito.fakes.FakeProvider;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tests that GwtMockito can be used by tests running concurrently on different threads.
+ */
+@RunWith(JUnit4.class)
+public class GwtMockitoConcurrencyTest {
+
+  @After
+  public void tearDown() {
+    GwtMockito.tearDown();
+  }
+
+  @Test
+  public void shouldKeepBindingsOfConcurrentTestsSeparate() throws Exception {
+    final CyclicBarrier barrier = new CyclicBarrier(2);
+    Callable<Void> test = new Callable<Void>() {
+      @Override
+      public Void call() throws Exception {
+        Owner owner = new Owner();
+        GwtMockito.initMocks(owner);
+        final String value = Thread.currentThread().getName();
+        GwtMockito.useProviderForType(Value.class, new FakeProvider<Value>() {
+          @Override
+          public Value getFake(Class<?> type) {
+            return new Value(value);
+          }
+        });
+        barrier.await(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 100; i++) {
+          assertSame(owner.sampleInterface, GWT.create(SampleInterface.class));
+          assertEquals(value, GWT.<Value>create(Value.class).value);
+        }
+
+        // Tearing down one test must not affect the other
+        barrier.await(10, TimeUnit.SECONDS);
+        GwtMockito.tearDown();
+        try {
+          GWT.create(SampleInterface.class);
+          fail("Exception not thrown");
+        } catch (UnsupportedOperationException expected) {}
+        return null;
+      }
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Void> first = executor.submit(test);
+      Future<Void> second = executor.submit(test);
+      first.get(30, TimeUnit.SECONDS);
+      second.get(30, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldShareBindingsWithThreadsStartedByTest() throws Exception {
+    final Owner owner = new Owner();
+    GwtMockito.initMocks(owner);
+
+    final AtomicReference<Object> created = new AtomicReference<Object>();
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        created.set(GWT.create(SampleInterface.class));
+        // Tearing down from the child thread should leave the parent's bindings in place
+        GwtMockito.tearDown();
+      }
+    };
+    thread.start();
+    thread.join();
+
+    assertSame(owner.sampleInterface, created.get());
+    assertSame(owner.sampleInterface, GWT.create(SampleInterface.class));
+  }
+
+  @Test
+  public void shouldNotShareBindingsWithUnrelatedThreads() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // Start the executor's thread before initializing mocks so that it doesn't inherit them
+      executor.submit(new Runnable() {
+        @Override
+        public void run() {}
+      }).get();
+      GwtMockito.initMocks(new Owner());
+
+      assertTrue(executor.submit(CREATE_FAILS).get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldNotShareBindingsWithThreadsAfterTestTearsDown() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // Start the executor's thread while the first test is running so that it inherits its mocks
+      GwtMockito.initMocks(new Owner());
+      executor.submit(new Runnable() {
+        @Override
+        public void run() {}
+      }).get();
+      GwtMockito.tearDown();
+
+      // The pooled thread must see neither the first test's mocks nor those of the next test
+      GwtMockito.initMocks(new Owner());
+      assertTrue(executor.submit(CREATE_FAILS).get(10, TimeUnit.SECONDS));
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Reports whether GWT.create fails on the thread it runs on. */
+  private static final Callable<Boolean> CREATE_FAILS = new Callable<Boolean>() {
+    @Override
+    public Boolean call() {
+      try {
+        GWT.create(SampleInterface.class);
+        return false;
+      } catch (UnsupportedOperationException expected) {
+        return true;
+      }
+    }
+  };
+
+  static class Owner {
+    @GwtMock SampleInterface sampleInterface;
+  }
+
+  interface SampleInterface {
+    String doSomething();
+  }
+
+  static class Value {
+    final String value;
+
+    Value(String value) {
+      this.value = value;
+    }
+  }
+}
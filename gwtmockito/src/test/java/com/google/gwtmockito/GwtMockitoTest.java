@@ -18,6 +18,8 @@ package com.google.gwtmockito;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -35,10 +37,16 @@ import com.google.gwt.dom.client.Element;
 import com.google.gwt.dom.client.IFrameElement;
 import com.google.gwt.dom.client.InputElement;
 import com.google.gwt.dom.client.Node;
+import com.google.gwt.event.dom.client.BlurEvent;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.event.shared.EventHandler;
+import com.google.gwt.event.shared.GwtEvent;
+import com.google.gwt.event.shared.HandlerRegistration;
 import com.google.gwt.http.client.URL;
 import com.google.gwt.i18n.client.BidiPolicy;
 import com.google.gwt.i18n.client.DateTimeFormat;
 import com.google.gwt.i18n.client.Messages;
+import com.google.gwt.i18n.client.NumberFormat;
 import com.google.gwt.resources.client.ClientBundle;
 import com.google.gwt.resources.client.CssResource;
 import com.google.gwt.resources.client.DataResource;
@@ -54,6 +62,7 @@ import com.google.gwt.safehtml.shared.SafeUri;
 import com.google.gwt.safehtml.shared.UriUtils;
 import com.google.gwt.uibinder.client.UiBinder;
 import com.google.gwt.uibinder.client.UiField;
+import com.google.gwt.uibinder.client.UiHandler;
 import com.google.gwt.user.cellview.client.CellList;
 import com.google.gwt.user.cellview.client.CellTable;
 import com.google.gwt.user.cellview.client.DataGrid;
@@ -69,6 +78,7 @@ import com.google.gwt.user.client.ui.HTML;
 import com.google.gwt.user.client.ui.Image;
 import com.google.gwt.user.client.ui.InlineHTML;
 import com.google.gwt.user.client.ui.InlineLabel;
+import com.google.gwt.user.client.ui.IsWidget;
 import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.ListBox;
 import com.google.gwt.user.client.ui.RadioButton;
@@ -163,6 +173,16 @@ public class GwtMockitoTest {
             UriUtils.fromSafeConstant("http://uriY")).asString());
   }
 
+  @Test
+  public void shouldReuseMessagesWithoutArguments() {
+    SampleMessages messages = GWT.create(SampleMessages.class);
+    SampleMessages otherMessages = GWT.create(SampleMessages.class);
+
+    assertSame(messages.noArgs(), messages.noArgs());
+    assertSame(messages.noArgs(), otherMessages.noArgs());
+    assertEquals("twoArgs(null, null)", messages.twoArgs(null, null));
+  }
+
   @Test
   public void shouldGenerateHashCodeForMessages() {
     SampleMessages messages = GWT.create(SampleMessages.class);
@@ -241,6 +261,21 @@ public class GwtMockitoTest {
     assertSame(someWidget, GWT.create(Label.class));
   }
 
+  @Test
+  public void typeProvidersShouldWorkForInterfacesOfSuperclasses() {
+    final Widget someWidget = mock(Widget.class);
+
+    GwtMockito.useProviderForType(IsWidget.class, new FakeProvider<Widget>() {
+      @Override
+      public Widget getFake(Class<?> type) {
+        assertTrue(type == Label.class);
+        return someWidget;
+      }
+    });
+
+    assertSame(someWidget, GWT.create(Label.class));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void shouldNotAllowProvidersForGwtMockedTypes() {
     GwtMockito.useProviderForType(SampleInterface.class, new FakeProvider<SampleInterface>() {
@@ -259,6 +294,31 @@ public class GwtMockitoTest {
     });
   }
 
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldNotAllowMultipleGwtMocksForSameTypeInHierarchy() {
+    class Base {
+      @GwtMock SampleInterface mock1;
+    }
+    GwtMockito.initMocks(new Base() {
+      @GwtMock SampleInterface mock2;
+    });
+  }
+
+  @Test
+  public void shouldInjectGwtMocksRepeatedlyIntoSameClass() {
+    class Owner {
+      @GwtMock SampleInterface mock;
+    }
+    Owner first = new Owner();
+    GwtMockito.initMocks(first);
+    Owner second = new Owner();
+    GwtMockito.initMocks(second);
+
+    assertNotNull(first.mock);
+    assertNotNull(second.mock);
+    assertSame(second.mock, GWT.create(SampleInterface.class));
+  }
+
   @Test
   public void shouldMockGwtElements() {
     when(element.getClassName()).thenReturn("class"); // getClassName() is final native
@@ -278,6 +338,134 @@ public class GwtMockitoTest {
     Assert.assertEquals("class", owner.uiField.getClassName());
   }
 
+  @Test
+  public void shouldPopulateInheritedButNotProvidedUiFields() {
+    class BaseOwner {
+      @UiField Label inheritedField;
+    }
+    class Owner extends BaseOwner {
+      @UiField Label ownField;
+      @UiField(provided = true) Label providedField;
+      Label notUiField;
+    }
+    SomeUiBinder uiBinder = GWT.create(SomeUiBinder.class);
+
+    // Bind twice to make sure fields are populated again for each owner
+    for (int i = 0; i < 2; i++) {
+      Owner owner = new Owner();
+      uiBinder.createAndBindUi(owner);
+
+      assertNotNull(owner.inheritedField);
+      assertNotNull(owner.ownField);
+      assertNull(owner.providedField);
+      assertNull(owner.notUiField);
+    }
+  }
+
+  @Test
+  public void shouldDispatchEventsFiredOnMockFieldsToUiHandlers() {
+    class Owner {
+      @UiField Button button;
+      @UiField TextBox textBox;
+      int clicks;
+      int blurs;
+
+      @UiHandler("button")
+      void onClick(ClickEvent event) {
+        clicks++;
+      }
+
+      @UiHandler({"button", "textBox"})
+      void onBlur(BlurEvent event) {
+        blurs++;
+      }
+    }
+    Owner owner = new Owner();
+    SomeUiBinder uiBinder = GWT.create(SomeUiBinder.class);
+    uiBinder.createAndBindUi(owner);
+
+    owner.button.fireEvent(new ClickEvent() {});
+    assertEquals(1, owner.clicks);
+    assertEquals(0, owner.blurs);
+
+    owner.button.fireEvent(new BlurEvent() {});
+    owner.textBox.fireEvent(new BlurEvent() {});
+    assertEquals(1, owner.clicks);
+    assertEquals(2, owner.blurs);
+
+    // Fired events are still recorded by the mocks
+    verify(owner.textBox).fireEvent(Matchers.any(BlurEvent.class));
+  }
+
+  @Test
+  public void shouldDispatchEventsFiredOnSharedMockFieldsToAllOwners() {
+    class SharedMocks {
+      @GwtMock Button button;
+    }
+    class Owner {
+      @UiField Button button;
+      int clicks;
+
+      @UiHandler("button")
+      void onClick(ClickEvent event) {
+        clicks++;
+      }
+    }
+    SharedMocks mocks = new SharedMocks();
+    GwtMockito.initMocks(mocks);
+    Owner first = new Owner();
+    Owner second = new Owner();
+    SomeUiBinder uiBinder = GWT.create(SomeUiBinder.class);
+    uiBinder.createAndBindUi(first);
+    uiBinder.createAndBindUi(second);
+
+    assertSame(mocks.button, first.button);
+    assertSame(mocks.button, second.button);
+    mocks.button.fireEvent(new ClickEvent() {});
+    assertEquals(1, first.clicks);
+    assertEquals(1, second.clicks);
+  }
+
+  @Test
+  public void shouldFailToBindUiHandlersToMocksForEventsWithoutType() {
+    class Owner {
+      @UiField UntypedEventWidget widget;
+
+      @UiHandler("widget")
+      void onUntyped(UntypedEvent event) {}
+    }
+    SomeUiBinder uiBinder = GWT.create(SomeUiBinder.class);
+
+    try {
+      uiBinder.createAndBindUi(new Owner());
+      fail("Exception not thrown");
+    } catch (IllegalStateException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("has no static getType method"));
+    }
+  }
+
+  @Test
+  public void shouldPropagateExceptionsFromUiHandlers() {
+    class Owner {
+      @UiField Button button;
+
+      @UiHandler("button")
+      void onClick(ClickEvent event) {
+        throw new IllegalStateException("clicked");
+      }
+    }
+    Owner owner = new Owner();
+    SomeUiBinder uiBinder = GWT.create(SomeUiBinder.class);
+    uiBinder.createAndBindUi(owner);
+
+    try {
+      owner.button.fireEvent(new ClickEvent() {});
+      fail("Exception not thrown");
+    } catch (IllegalStateException e) {
+      assertEquals("clicked", e.getMessage());
+    }
+  }
+
   @Test
   public void shouldCallNativeMethodsWithoutFailures() throws Exception {
     class SomeComposite extends Composite {
@@ -322,6 +510,7 @@ public class GwtMockitoTest {
     }
 
     assertEquals(false, new SomeClass().getBoolean());
+    assertEquals(0, (byte) new SomeClass().getByte());
     assertEquals(0, (char) new SomeClass().getCharacter());
     assertEquals(0, new SomeClass().getDouble(), 0.01);
     assertEquals(0, new SomeClass().getFloat(), 0.01);
@@ -339,6 +528,27 @@ public class GwtMockitoTest {
     assertEquals(SomeEnum.ONE, new SomeClass().getSomeEnum());
   }
 
+  @Test
+  public void shouldReturnNullForEmptyEnumsFromNativeMethods() throws Exception {
+    class SomeClass {
+      private native EmptyEnum getEmptyEnum();
+    }
+
+    assertNull(new SomeClass().getEmptyEnum());
+  }
+
+  @Test
+  public void shouldReturnSameConstantsFromRepeatedNativeCalls() throws Exception {
+    class SomeClass {
+      private native String getString();
+      private native Integer getInteger();
+    }
+
+    SomeClass someClass = new SomeClass();
+    assertSame(someClass.getString(), someClass.getString());
+    assertSame(someClass.getInteger(), someClass.getInteger());
+  }
+
   @Test
   public void shouldReturnEmptyStringsFromNativeMethods() throws Exception {
     class SomeClass {
@@ -412,6 +622,19 @@ public class GwtMockitoTest {
     assertEquals("externalText", result.toString());
   }
 
+  @Test
+  public void shouldReturnSameResourcesFromClientBundle() {
+    SomeClientBundle clientBundle = GWT.create(SomeClientBundle.class);
+    SomeClientBundle otherClientBundle = GWT.create(SomeClientBundle.class);
+
+    assertSame(clientBundle.css(), clientBundle.css());
+    assertSame(clientBundle.image(), clientBundle.image());
+    assertSame(clientBundle.image(), otherClientBundle.image());
+
+    // CSS resources come from GWT.create, so each bundle gets its own
+    assertNotSame(clientBundle.css(), otherClientBundle.css());
+  }
+
   @Test
   public void shouldMockCustomClientBundles() throws Exception {
     SvgClientBundle clientBundle = GWT.create(SvgClientBundle.class);
@@ -519,6 +742,31 @@ public class GwtMockitoTest {
     assertEquals("subSubInterface", i.doSomethingElse());
   }
 
+  @Test
+  public void shouldNotShareRegisteredProvidersBetweenTests() {
+    // canUseProvidersForTypes registers a provider for this type, which shouldn't leak into here
+    try {
+      GwtMockito.getFake(AnotherInterface.class);
+      fail("Exception not thrown");
+    } catch (IllegalArgumentException expected) {}
+  }
+
+  @Test
+  public void shouldInvalidateResolvedProvidersWhenProviderIsRegistered() {
+    assertEquals("noArgs", GWT.<SampleMessages>create(SampleMessages.class).noArgs());
+
+    GwtMockito.useProviderForType(SampleMessages.class, new FakeProvider<SampleMessages>() {
+      @Override
+      public SampleMessages getFake(Class<?> type) {
+        SampleMessages mock = mock(SampleMessages.class);
+        when(mock.noArgs()).thenReturn("custom");
+        return mock;
+      }
+    });
+
+    assertEquals("custom", GWT.<SampleMessages>create(SampleMessages.class).noArgs());
+  }
+
   @Test
   public void shouldFailForAmbiguousProviders() {
     GwtMockito.useProviderForType(AnotherInterface.class, new FakeProvider<AnotherInterface>() {
@@ -649,6 +897,13 @@ public class GwtMockitoTest {
     assertEquals("1992/11/09 12:34:56 PM", formatter.format(new Date(92, 10, 9, 12, 34, 56)));
   }
 
+  @Test
+  public void shouldBeAbleToFormatNumbers() {
+    assertEquals("1,234.568", NumberFormat.getDecimalFormat().format(1234.5678));
+    assertEquals("0.15", NumberFormat.getFormat("0.00").format(0.15));
+    assertEquals("1E10", NumberFormat.getScientificFormat().format(1e10));
+  }
+
   @Test
   @SuppressWarnings("unused")
   public void shouldBeAbleToCreateImages() {
@@ -709,6 +964,29 @@ public class GwtMockitoTest {
   interface SomeUiBinder extends UiBinder<Widget, Object> {}
   interface ParameterizedTypeUiBinder extends UiBinder<DataGrid<String>, Object> {}
 
+  /** An event without the static getType method that GWT's events declare. */
+  public static class UntypedEvent extends GwtEvent<UntypedEventHandler> {
+    @Override
+    public Type<UntypedEventHandler> getAssociatedType() {
+      return null;
+    }
+
+    @Override
+    protected void dispatch(UntypedEventHandler handler) {
+      handler.onUntyped(this);
+    }
+  }
+
+  public interface UntypedEventHandler extends EventHandler {
+    void onUntyped(UntypedEvent event);
+  }
+
+  public static class UntypedEventWidget extends Widget {
+    public HandlerRegistration addUntypedEventHandler(UntypedEventHandler handler) {
+      return addHandler(handler, new GwtEvent.Type<UntypedEventHandler>());
+    }
+  }
+
   private interface SampleInterface {
     String doSomething();
   }
@@ -764,6 +1042,8 @@ public class GwtMockitoTest {
     ONE, TWO
   }
 
+  enum EmptyEnum {}
+
   private static class SampleWidget extends Composite {
 
     interface MyUiBinder extends UiBinder<Widget, SampleWidget> {}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gwtmockito.fakes.FakeProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tests for {@link ProviderRegistry}.
+ */
+@RunWith(JUnit4.class)
+public class ProviderRegistryTest {
+
+  @Test
+  public void lazyLayerShouldOnlyInstantiateProvidersWhenNeeded() {
+    Map<String, String> providers = new HashMap<String, String>();
+    providers.put(Runnable.class.getName(), RunnableProvider.class.getName());
+    providers.put(CharSequence.class.getName(), "com.example.DoesNotExist");
+    ProviderRegistry registry = ProviderRegistry.lazy(providers);
+
+    // Resolving an unrelated type shouldn't try to load either provider
+    assertNull(registry.getProvider(Integer.class));
+
+    FakeProvider<?> provider = registry.getProvider(Thread.class);
+    assertTrue(provider instanceof RunnableProvider);
+    assertSame(provider, registry.getProvider(Runnable.class));
+
+    try {
+      registry.getProvider(String.class);
+      fail("Exception not thrown");
+    } catch (IllegalStateException expected) {}
+  }
+
+  @Test
+  public void lazyLayerShouldWrapExceptionsThrownByProviderConstructors() {
+    Map<String, String> providers = new HashMap<String, String>();
+    providers.put(Runnable.class.getName(), FailingProvider.class.getName());
+    ProviderRegistry registry = ProviderRegistry.lazy(providers);
+
+    try {
+      registry.getProvider(Runnable.class);
+      fail("Exception not thrown");
+    } catch (IllegalStateException expected) {
+      assertTrue(expected.getCause() instanceof IOException);
+    }
+  }
+
+  @Test
+  public void lazyLayerShouldTakePrecedenceOverItsParent() {
+    Map<String, String> parentProviders = new HashMap<String, String>();
+    parentProviders.put(Runnable.class.getName(), RunnableProvider.class.getName());
+    parentProviders.put(Thread.class.getName(), RunnableProvider.class.getName());
+    ProviderRegistry parent = ProviderRegistry.lazy(parentProviders);
+    Map<String, String> providers = new HashMap<String, String>();
+    providers.put(Runnable.class.getName(), OtherRunnableProvider.class.getName());
+    ProviderRegistry registry = ProviderRegistry.lazy(parent, providers);
+
+    assertTrue(registry.getProvider(Runnable.class) instanceof OtherRunnableProvider);
+    assertTrue(parent.getProvider(Runnable.class) instanceof RunnableProvider);
+    // Providers only registered in the parent are shared with it
+    assertSame(parent.getProvider(Thread.class), registry.getProvider(Thread.class));
+  }
+
+  @Test
+  public void overlayShouldTakePrecedenceOverLazyLayer() {
+    Map<String, String> providers = new HashMap<String, String>();
+    providers.put(Runnable.class.getName(), RunnableProvider.class.getName());
+    ProviderRegistry registry = ProviderRegistry.overlay(ProviderRegistry.lazy(providers));
+    RunnableProvider provider = new RunnableProvider();
+    registry.register(Runnable.class, provider);
+
+    assertSame(provider, registry.getProvider(Thread.class));
+  }
+
+  @Test
+  public void shouldResolveProvidersForArraysOfSupertypes() {
+    ProviderRegistry registry = ProviderRegistry.overlay(
+        ProviderRegistry.lazy(new HashMap<String, String>()));
+    FakeProvider<?> objectsProvider = new RunnableProvider();
+    FakeProvider<?> sequencesProvider = new RunnableProvider();
+    registry.register(Object[].class, objectsProvider);
+    registry.register(CharSequence[].class, sequencesProvider);
+
+    assertSame(sequencesProvider, registry.getProvider(String[].class));
+    assertSame(objectsProvider, registry.getProvider(Integer[].class));
+    assertSame(objectsProvider, registry.getProvider(String[][].class));
+    assertNull(registry.getProvider(int[].class));
+  }
+
+  public static class RunnableProvider implements FakeProvider<Runnable> {
+    @Override
+    public Runnable getFake(Class<?> type) {
+      return new Runnable() {
+        @Override
+        public void run() {}
+      };
+    }
+  }
+
+  public static class OtherRunnableProvider extends RunnableProvider {}
+
+  public static class FailingProvider implements FakeProvider<Runnable> {
+    public FailingProvider() throws IOException {
+      throw new IOException("Not today");
+    }
+
+    @Override
+    public Runnable getFake(Class<?> type) {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verify;
+
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwtmockito.StubReturns.Behavior;
+import com.google.gwtmockito.StubReturnsTest.ClassToStub;
+import com.google.gwtmockito.StubReturnsTest.SomeEnum;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.internal.util.MockUtil;
+
+@RunWith(GwtMockitoTestRunner.class)
+@StubReturns(type = ClassToStub.class, method = "getString", value = "some \"value\"\n")
+@StubReturns(type = ClassToStub.class, method = "getInt", value = "-42")
+@StubReturns(type = ClassToStub.class, method = "getLong", value = "1234567890123")
+@StubReturns(type = ClassToStub.class, method = "getDouble", value = "1.5")
+@StubReturns(type = ClassToStub.class, method = "getBoolean", value = "true")
+@StubReturns(type = ClassToStub.class, method = "getCharacter", value = "x")
+@StubReturns(type = ClassToStub.class, method = "getEnum", value = "TWO")
+@StubReturns(type = ClassToStub.class, method = "getDefaultInteger")
+@StubReturns(type = ClassToStub.class, method = "getNull")
+@StubReturns(type = ClassToStub.class, method = "getNewInstance",
+    behavior = Behavior.NEW_INSTANCE, instanceType = StringBuilder.class)
+@StubReturns(type = ClassToStub.class, method = "withName", behavior = Behavior.THIS)
+@StubReturns(type = ClassToStub.class, method = "getLabel", behavior = Behavior.MOCK)
+@StubReturns(type = ClassToStub.class, method = "doNothing")
+@StubReturns(type = SomeEnum.class, method = "describe", value = "stubbed")
+public class StubReturnsTest {
+
+  @Test
+  public void shouldReturnConstants() {
+    ClassToStub stubbed = new ClassToStub();
+    assertEquals("some \"value\"\n", stubbed.getString());
+    assertEquals(-42, stubbed.getInt());
+    assertEquals(1234567890123L, stubbed.getLong());
+    assertEquals(1.5, stubbed.getDouble(), 0);
+    assertEquals(true, stubbed.getBoolean());
+    assertEquals('x', (char) stubbed.getCharacter());
+    assertEquals(SomeEnum.TWO, stubbed.getEnum());
+    assertEquals(0, (int) stubbed.getDefaultInteger());
+    assertEquals(null, stubbed.getNull());
+  }
+
+  @Test
+  public void shouldReturnNewInstances() {
+    ClassToStub stubbed = new ClassToStub();
+    assertTrue(stubbed.getNewInstance() instanceof StringBuilder);
+    assertNotSame(stubbed.getNewInstance(), stubbed.getNewInstance());
+  }
+
+  @Test
+  public void shouldReturnThis() {
+    ClassToStub stubbed = new ClassToStub();
+    assertSame(stubbed, stubbed.withName("name"));
+  }
+
+  @Test
+  public void shouldReturnMocks() {
+    Label label = new ClassToStub().getLabel();
+    assertTrue(new MockUtil().isMock(label));
+    label.setText("text");
+    verify(label).setText("text");
+  }
+
+  @Test
+  public void shouldStubVoidMethods() {
+    new ClassToStub().doNothing();
+  }
+
+  @Test
+  public void shouldOnlyStubNamedMethods() {
+    assertEquals("real", new ClassToStub().notStubbed());
+    assertNotNull(SomeEnum.ONE.name());
+    assertEquals("stubbed", SomeEnum.ONE.describe());
+  }
+
+  static class ClassToStub {
+    String getString() {
+      throw new UnsupportedOperationException();
+    }
+
+    int getInt() {
+      throw new UnsupportedOperationException();
+    }
+
+    long getLong() {
+      throw new UnsupportedOperationException();
+    }
+
+    double getDouble() {
+      throw new UnsupportedOperationException();
+    }
+
+    Boolean getBoolean() {
+      throw new UnsupportedOperationException();
+    }
+
+    Character getCharacter() {
+      throw new UnsupportedOperationException();
+    }
+
+    SomeEnum getEnum() {
+      throw new UnsupportedOperationException();
+    }
+
+    Integer getDefaultInteger() {
+      throw new UnsupportedOperationException();
+    }
+
+    Object getNull() {
+      throw new UnsupportedOperationException();
+    }
+
+    CharSequence getNewInstance() {
+      throw new UnsupportedOperationException();
+    }
+
+    ClassToStub withName(String name) {
+      throw new UnsupportedOperationException();
+    }
+
+    Label getLabel() {
+      throw new UnsupportedOperationException();
+    }
+
+    void doNothing() {
+      throw new UnsupportedOperationException();
+    }
+
+    String notStubbed() {
+      return "real";
+    }
+  }
+
+  enum SomeEnum {
+    ONE, TWO;
+
+    String describe() {
+      throw new UnsupportedOperationException();
+    }
+  }
+}
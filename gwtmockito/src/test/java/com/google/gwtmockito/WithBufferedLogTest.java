@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gwt.core.shared.GWT;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Request;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests for {@link WithBufferedLog}.
+ */
+@RunWith(JUnit4.class)
+@WithBufferedLog(maxEntries = 2)
+public class WithBufferedLogTest {
+
+  @Before
+  public void setUp() {
+    GwtMockito.initMocks(this);
+  }
+
+  @After
+  public void tearDown() {
+    GwtMockito.tearDown();
+  }
+
+  @Test
+  public void shouldBufferLogMessages() {
+    GWT.log("first");
+    GWT.log("second", new IllegalStateException("oops"));
+
+    String log = GwtMockito.getBufferedLog();
+    assertTrue(log, log.startsWith("first\nsecond\njava.lang.IllegalStateException: oops"));
+  }
+
+  @Test
+  public void shouldDropOldestMessagesWhenFull() {
+    GWT.log("first");
+    GWT.log("second");
+    GWT.log("third");
+
+    assertEquals("(1 earlier messages dropped)\nsecond\nthird\n", GwtMockito.getBufferedLog());
+  }
+
+  @Test
+  public void shouldAttachLogToFailures() {
+    Result result = new JUnitCore().run(Request.aClass(FailingTest.class));
+
+    assertEquals(2, result.getRunCount());
+    assertEquals(1, result.getFailureCount());
+    Throwable failure = result.getFailures().get(0).getException();
+    assertEquals("failed", failure.getMessage());
+    assertEquals(1, failure.getSuppressed().length);
+    String log = failure.getSuppressed()[0].getMessage();
+    assertTrue(log, log.contains("logged with exception"));
+    assertFalse(log, log.contains("logged without exception"));
+  }
+
+  @Test
+  public void shouldReportOriginalFailureIfTestTearsDownItself() {
+    Result result = new JUnitCore().run(Request.aClass(SelfTearingDownTest.class));
+
+    assertEquals(1, result.getFailureCount());
+    Throwable failure = result.getFailures().get(0).getException();
+    assertEquals("failed", failure.getMessage());
+    assertEquals(0, failure.getSuppressed().length);
+  }
+
+  @RunWith(GwtMockitoTestRunner.class)
+  @WithBufferedLog(errorsOnly = true)
+  public static class FailingTest {
+    @Test
+    public void fails() {
+      GWT.log("logged without exception");
+      GWT.log("logged with exception", new IllegalStateException());
+      fail("failed");
+    }
+
+    @Test
+    public void passes() {
+      GWT.log("logged with exception", new IllegalStateException());
+    }
+  }
+
+  @RunWith(GwtMockitoTestRunner.class)
+  @WithBufferedLog
+  public static class SelfTearingDownTest {
+    @After
+    public void tearDown() {
+      GwtMockito.tearDown();
+    }
+
+    @Test
+    public void fails() {
+      GWT.log("logged");
+      fail("failed");
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.i18n.client.DateTimeFormat;
+import com.google.gwt.i18n.client.LocaleInfo;
+import com.google.gwt.i18n.client.NumberFormat;
+import com.google.gwt.i18n.client.constants.NumberConstants;
+import com.google.gwt.i18n.client.constants.NumberConstantsImpl;
+import com.google.gwt.i18n.client.impl.LocaleInfoImpl;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Date;
+
+/**
+ * Tests for {@link WithLocale}.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+@WithLocale("de_AT")
+public class WithLocaleTest {
+
+  @Test
+  public void shouldReportLocaleName() {
+    assertEquals("de_AT", LocaleInfo.getCurrentLocale().getLocaleName());
+  }
+
+  @Test
+  public void shouldUseLocaleNumberConstants() {
+    NumberConstants constants = LocaleInfo.getCurrentLocale().getNumberConstants();
+
+    assertEquals(",", constants.decimalSeparator());
+    assertEquals("EUR", constants.defCurrencyCode());
+  }
+
+  @Test
+  public void shouldFormatNumbersForLocale() {
+    assertEquals("1.234.567,891", NumberFormat.getDecimalFormat().format(1234567.891));
+    assertEquals("-12,5", NumberFormat.getFormat("#,##0.0").format(-12.5));
+  }
+
+  @Test
+  @SuppressWarnings("deprecation") // for Date's constructor
+  public void shouldFormatDatesForLocale() {
+    Date date = new Date(114, 0, 2);
+
+    // Austrian German has its own name for January, inherited data comes from German
+    assertEquals("2. Jänner 2014", DateTimeFormat.getFormat("d. MMMM yyyy").format(date));
+    assertEquals("Donnerstag", DateTimeFormat.getFormat("EEEE").format(date));
+  }
+
+  @Test
+  public void shouldAcceptRegionalLocalesWithOnlyLanguageData() {
+    @WithLocale("pt_BR")
+    class BrazilianPortugueseTest {}
+    @WithLocale("en_US")
+    class AmericanEnglishTest {}
+
+    try {
+      GwtMockito.initMocks(new BrazilianPortugueseTest());
+      assertEquals("pt_BR", GWT.<LocaleInfoImpl>create(LocaleInfoImpl.class).getLocaleName());
+      assertEquals(",",
+          GWT.<NumberConstantsImpl>create(NumberConstantsImpl.class).decimalSeparator());
+
+      GwtMockito.initMocks(new AmericanEnglishTest());
+      assertEquals("en_US", GWT.<LocaleInfoImpl>create(LocaleInfoImpl.class).getLocaleName());
+      assertEquals(".",
+          GWT.<NumberConstantsImpl>create(NumberConstantsImpl.class).decimalSeparator());
+    } finally {
+      GwtMockito.initMocks(this);
+    }
+  }
+
+  @Test
+  public void shouldRejectUnknownLocales() {
+    @WithLocale("xx_YY")
+    class UnknownLocaleTest {}
+
+    try {
+      GwtMockito.initMocks(new UnknownLocaleTest());
+      fail("Exception not thrown");
+    } catch (IllegalArgumentException e) {
+      assertEquals("GWT has no CLDR data for locale xx_YY", e.getMessage());
+    } finally {
+      GwtMockito.initMocks(this);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.event.dom.client.ClickEvent;
+import com.google.gwt.uibinder.client.UiBinder;
+import com.google.gwt.uibinder.client.UiField;
+import com.google.gwt.uibinder.client.UiHandler;
+import com.google.gwt.user.client.ui.Button;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwt.user.client.ui.Widget;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.MethodSorters;
+
+/**
+ * Tests for {@link WithRecycledMocks}. The tests run in name order since later tests check the
+ * mocks left behind by earlier ones.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+@WithRecycledMocks
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class WithRecycledMocksTest {
+
+  private static SampleInterface firstGwtMock;
+  private static Label firstCreatedLabel;
+  private static Owner firstOwner;
+
+  @GwtMock SampleInterface sampleInterface;
+
+  @Test
+  public void test1_createMocks() {
+    firstGwtMock = sampleInterface;
+    firstCreatedLabel = GWT.create(Label.class);
+
+    when(sampleInterface.doSomething()).thenReturn("stubbed");
+    firstCreatedLabel.setText("text");
+
+    assertEquals("stubbed", sampleInterface.doSomething());
+  }
+
+  @Test
+  public void test2_shouldReuseResetGwtMocks() {
+    assertSame(firstGwtMock, sampleInterface);
+    assertNull(sampleInterface.doSomething());
+  }
+
+  @Test
+  public void test3_shouldReuseResetCreatedMocks() {
+    Label label = GWT.create(Label.class);
+    assertSame(firstCreatedLabel, label);
+    verifyZeroInteractions(label);
+  }
+
+  @Test
+  public void test4_shouldStillCreateDistinctMocksWithinTest() {
+    Label label1 = GWT.create(Label.class);
+    Label label2 = GWT.create(Label.class);
+    assertNotSame(label1, label2);
+    assertTrue(label1 == firstCreatedLabel || label2 == firstCreatedLabel);
+  }
+
+  @Test
+  public void test5_bindUiHandlers() {
+    firstOwner = new Owner();
+    OwnerUiBinder uiBinder = GWT.create(OwnerUiBinder.class);
+    uiBinder.createAndBindUi(firstOwner);
+
+    firstOwner.button.fireEvent(new ClickEvent() {});
+    assertEquals(1, firstOwner.clicks);
+  }
+
+  @Test
+  public void test6_shouldOnlyDispatchToHandlersBoundInCurrentTest() {
+    Owner owner = new Owner();
+    OwnerUiBinder uiBinder = GWT.create(OwnerUiBinder.class);
+    uiBinder.createAndBindUi(owner);
+    assertSame(firstOwner.button, owner.button);
+
+    owner.button.fireEvent(new ClickEvent() {});
+    assertEquals(1, owner.clicks);
+    assertEquals(1, firstOwner.clicks);
+  }
+
+  static class Owner {
+    @UiField Button button;
+    int clicks;
+
+    @UiHandler("button")
+    void onClick(ClickEvent event) {
+      clicks++;
+    }
+  }
+
+  interface OwnerUiBinder extends UiBinder<Widget, Owner> {}
+
+  interface SampleInterface {
+    String doSomething();
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.i18n.client.Messages;
+import com.google.gwt.resources.client.ClientBundle;
+import com.google.gwt.resources.client.CssResource;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwtmockito.fakes.FakeProvider;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests for {@link WithSingletonFakes}.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+@WithSingletonFakes
+public class WithSingletonFakesTest {
+
+  @Test
+  public void shouldReturnSameFakeForDefaultTypes() {
+    assertSame(GWT.create(SampleResources.class), GWT.create(SampleResources.class));
+    assertSame(GWT.create(SampleMessages.class), GWT.create(SampleMessages.class));
+    assertSame(GWT.create(SampleCss.class), GWT.create(SampleCss.class));
+  }
+
+  @Test
+  public void shouldReturnDifferentFakesForDifferentTypes() {
+    assertNotSame(GWT.create(SampleMessages.class), GWT.create(OtherMessages.class));
+  }
+
+  @Test
+  public void shouldReuseFakesFromRegisteredProviders() {
+    GwtMockito.useProviderForType(SampleMessages.class, new FakeProvider<SampleMessages>() {
+      @Override
+      public SampleMessages getFake(Class<?> type) {
+        return new SampleMessages() {
+          @Override
+          public String message() {
+            return "custom";
+          }
+        };
+      }
+    });
+
+    SampleMessages messages = GWT.create(SampleMessages.class);
+    assertEquals("custom", messages.message());
+    assertSame(messages, GWT.create(SampleMessages.class));
+  }
+
+  @Test
+  public void shouldDropFakesCreatedBeforeProviderIsRegistered() {
+    SampleMessages defaultMessages = GWT.create(SampleMessages.class);
+    GwtMockito.useProviderForType(Messages.class, new FakeProvider<Messages>() {
+      @Override
+      public Messages getFake(Class<?> type) {
+        return new SampleMessages() {
+          @Override
+          public String message() {
+            return "custom";
+          }
+        };
+      }
+    });
+
+    SampleMessages messages = GWT.create(SampleMessages.class);
+    assertNotSame(defaultMessages, messages);
+    assertEquals("custom", messages.message());
+    assertSame(messages, GWT.create(SampleMessages.class));
+  }
+
+  @Test
+  public void shouldStillReturnNewMocksForOtherTypes() {
+    assertNotSame(GWT.create(Label.class), GWT.create(Label.class));
+  }
+
+  @Test
+  public void shouldStillReturnNewFakesFromGetFake() {
+    assertNotSame(
+        GwtMockito.getFake(SampleMessages.class), GwtMockito.getFake(SampleMessages.class));
+  }
+
+  interface SampleResources extends ClientBundle {
+    SampleCss css();
+  }
+
+  interface SampleCss extends CssResource {
+    String style();
+  }
+
+  interface SampleMessages extends Messages {
+    String message();
+  }
+
+  interface OtherMessages extends Messages {
+    String message();
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.google.gwtmockito;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gwt.core.shared.GWT;
+import com.google.gwt.i18n.client.Messages;
+import com.google.gwt.user.client.ui.Button;
+import com.google.gwt.user.client.ui.Label;
+import com.google.gwtmockito.GwtMockitoStatistics.Resolution;
+import com.google.gwtmockito.GwtMockitoStatistics.TypeStatistics;
+import com.google.gwtmockito.impl.SuiteStatistics;
+
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runner.Result;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Tests for {@link WithStatistics}.
+ */
+@RunWith(GwtMockitoTestRunner.class)
+@WithStatistics
+public class WithStatisticsTest {
+
+  @GwtMock SampleInterface mockedInterface;
+
+  @Test
+  public void shouldCacheResolvedProviders() {
+    GwtMockitoStatistics before = GwtMockito.getStatistics();
+    GWT.create(SampleMessages.class);
+    GWT.create(SampleMessages.class);
+    GWT.create(SampleInterface.class); // @GwtMocks don't need a provider lookup
+    GwtMockitoStatistics after = GwtMockito.getStatistics();
+
+    // The default providers' cache is shared between tests, so the first lookup may also be a hit
+    int misses = after.getProviderCacheMisses() - before.getProviderCacheMisses();
+    int hits = after.getProviderCacheHits() - before.getProviderCacheHits();
+    assertEquals(2, hits + misses);
+    assertTrue(hits >= 1);
+  }
+
+  @Test
+  public void shouldRecordCreateCallsPerType() {
+    // Loading Label creates its DebugIdImpl through GWT.create, so do that outside the window
+    new Label();
+    GwtMockitoStatistics before = GwtMockito.getStatistics();
+    GWT.create(SampleMessages.class);
+    GWT.create(SampleMessages.class);
+    GWT.create(SampleInterface.class);
+    GWT.create(Label.class);
+    GwtMockitoStatistics after = GwtMockito.getStatistics();
+
+    assertEquals(4, after.getCreateCallCount() - before.getCreateCallCount());
+
+    TypeStatistics messages = after.getTypeStatistics(SampleMessages.class);
+    assertEquals(SampleMessages.class, messages.getType());
+    assertEquals(2, messages.getCallCount(Resolution.FAKE_PROVIDER)
+        - before.getTypeStatistics(SampleMessages.class).getCallCount(Resolution.FAKE_PROVIDER));
+    assertTrue(messages.getTotalNanos() > 0);
+    assertEquals(1, after.getTypeStatistics(SampleInterface.class).getCallCount(Resolution.GWT_MOCK)
+        - before.getTypeStatistics(SampleInterface.class).getCallCount(Resolution.GWT_MOCK));
+    assertEquals(1, after.getTypeStatistics(Label.class).getCallCount(Resolution.DEFAULT_MOCK)
+        - before.getTypeStatistics(Label.class).getCallCount(Resolution.DEFAULT_MOCK));
+    assertEquals(0, after.getTypeStatistics(Button.class).getCallCount());
+
+    // Types are ordered from most to least frequently created
+    List<TypeStatistics> allStatistics = after.getTypeStatistics();
+    for (int i = 1; i < allStatistics.size(); i++) {
+      assertTrue(allStatistics.get(i - 1).getCallCount() >= allStatistics.get(i).getCallCount());
+    }
+  }
+
+  @Test
+  public void shouldRejectTestsWithoutStatistics() {
+    @WithStatistics(false)
+    class WithoutStatisticsTest {}
+
+    GwtMockito.initMocks(new WithoutStatisticsTest());
+    try {
+      GwtMockito.getStatistics();
+      fail("Exception not thrown");
+    } catch (IllegalStateException e) {
+      assertEquals("Annotate the test class with @WithStatistics or set the gwtmockito.statistics "
+          + "system property before calling getStatistics()", e.getMessage());
+    } finally {
+      GwtMockito.initMocks(this);
+    }
+  }
+
+  @Test
+  public void shouldRecordStatisticsForUnannotatedTestsWhenPropertyIsSet() {
+    class UnannotatedTest {}
+
+    String previousValue = System.setProperty(GwtMockitoStatistics.ENABLED_PROPERTY, "true");
+    try {
+      GwtMockito.initMocks(new UnannotatedTest());
+      GWT.create(SampleInterface.class);
+
+      assertEquals(1, GwtMockito.getStatistics().getTypeStatistics(SampleInterface.class)
+          .getCallCount(Resolution.DEFAULT_MOCK));
+    } finally {
+      restoreEnabledProperty(previousValue);
+      GwtMockito.initMocks(this);
+    }
+  }
+
+  @Test
+  public void shouldAddStatisticsToSuiteTotalsWhenTestTearsDown() {
+    // The totals are shared with other test classes, which have their own copies of GwtMockito
+    assertNotSame(
+        WithStatisticsTest.class.getClassLoader(), SuiteStatistics.class.getClassLoader());
+    long before = SuiteStatistics.getCallCount(CountedInterface.class.getName());
+    GWT.create(CountedInterface.class);
+    GWT.create(CountedInterface.class);
+    assertEquals(before, SuiteStatistics.getCallCount(CountedInterface.class.getName()));
+
+    GwtMockito.tearDown();
+    GwtMockito.initMocks(this);
+    assertEquals(before + 2, SuiteStatistics.getCallCount(CountedInterface.class.getName()));
+  }
+
+  @Test
+  public void listenerShouldEnableStatisticsAndReportTotals() {
+    ByteArrayOutputStream report = new ByteArrayOutputStream();
+    GwtMockitoStatisticsListener listener =
+        new GwtMockitoStatisticsListener(new PrintStream(report, true));
+
+    String previousValue = System.getProperty(GwtMockitoStatistics.ENABLED_PROPERTY);
+    try {
+      listener.testRunStarted(Description.EMPTY);
+      assertEquals("true", System.getProperty(GwtMockitoStatistics.ENABLED_PROPERTY));
+    } finally {
+      restoreEnabledProperty(previousValue);
+    }
+
+    GWT.create(ReportedInterface.class);
+    GwtMockito.tearDown();
+    GwtMockito.initMocks(this);
+    listener.testRunFinished(new Result());
+    assertTrue(report.toString(), report.toString().startsWith("GwtMockito statistics for "));
+    assertTrue(report.toString(), report.toString().contains(
+        ReportedInterface.class.getName() + ": 1 calls in 1 tests, at most 1 in one "
+            + "(GWT_MOCK=0, FAKE_PROVIDER=0, DEFAULT_MOCK=1)"));
+  }
+
+  private static void restoreEnabledProperty(String previousValue) {
+    if (previousValue != null) {
+      System.setProperty(GwtMockitoStatistics.ENABLED_PROPERTY, previousValue);
+    } else {
+      System.clearProperty(GwtMockitoStatistics.ENABLED_PROPERTY);
+    }
+  }
+
+  interface SampleInterface {
+    String doSomething();
+  }
+
+  interface CountedInterface {}
+
+  interface ReportedInterface {}
+
+  interface SampleMessages extends Messages {
+    String message();
+  }
+}
@@ -17,6 +17,8 @@ package com.google.gwtmockito.rpc;
 
 import static com.google.gwtmockito.AsyncAnswers.returnFailure;
 import static com.google.gwtmockito.AsyncAnswers.returnSuccess;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
@@ -25,6 +27,7 @@ import static org.mockito.Mockito.verify;
 import com.google.gwt.core.shared.GWT;
 import com.google.gwt.uibinder.client.UiField;
 import com.google.gwt.user.client.rpc.AsyncCallback;
+import com.google.gwt.user.client.rpc.RemoteService;
 import com.google.gwt.user.client.ui.HasText;
 import com.google.gwt.user.client.ui.Label;
 import com.google.gwtmockito.GwtMock;
@@ -137,6 +140,38 @@ public class GwtMockitoRpcTest {
     verify(widget.message).setText("mocked");
   }
 
+  @Test
+  public void shouldCreateAsyncInterfacesForNestedServices() {
+    NestedServiceAsync service = GWT.create(NestedService.class);
+    service.doNestedRpc(new AsyncCallback<String>() {
+      @Override
+      public void onSuccess(String result) {}
+      @Override
+      public void onFailure(Throwable caught) {}
+    });
+    verify(service).doNestedRpc(anyAsyncCallback());
+  }
+
+  @Test
+  public void shouldFailForServicesWithoutAsyncInterfaces() {
+    try {
+      GWT.create(ServiceWithoutAsync.class);
+      fail("Exception not thrown");
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().contains("ServiceWithoutAsync"));
+    }
+  }
+
+  interface NestedService extends RemoteService {
+    String doNestedRpc();
+  }
+
+  interface NestedServiceAsync {
+    void doNestedRpc(AsyncCallback<String> callback);
+  }
+
+  interface ServiceWithoutAsync extends RemoteService {}
+
   @SuppressWarnings("unchecked")
   private AsyncCallback<String> anyAsyncCallback() {
     return any(AsyncCallback.class);